@@ -0,0 +1,402 @@
+package com.abneco.delivery.address.autocomplete;
+
+import com.abneco.delivery.address.cep.Cep;
+import com.abneco.delivery.address.cep.CepCache;
+import com.abneco.delivery.address.dto.AddressSuggestion;
+import com.abneco.delivery.address.dto.AddressTO;
+import com.abneco.delivery.address.repository.AddressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over the known ceps and streets, fed by the stored addresses and the ceps looked up on ViaCEP.
+ * <p>
+ * It is a radix tree: every cep is indexed by its digits, by its street and by its street without the first word
+ * ("ministro jesuino cardoso" for "Rua Ministro Jesuíno Cardoso"). Each node keeps the ids of the top-k ceps of its
+ * subtree, ranked by how many stored addresses use them, so a query is a walk down the prefix and a copy of that list.
+ * An address that is deleted or moves to another cep releases its weight, and the lists on its paths are ranked again.
+ */
+@Component
+@Slf4j
+public class AddressAutocompleteIndex {
+
+    public static final int DEFAULT_TOP_K = 10;
+
+    private static final char CEP_KEY = '#';
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final AddressRepository repository;
+    private final CepCache cepCache;
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Integer, Integer> idsByCep = new HashMap<>();
+    private final List<AddressSuggestion> suggestions = new ArrayList<>();
+    private int[] weights = new int[1024];
+
+    public AddressAutocompleteIndex() {
+        this(null, null, DEFAULT_TOP_K);
+    }
+
+    @Autowired
+    public AddressAutocompleteIndex(AddressRepository repository, CepCache cepCache,
+                                    @Value("${address.autocomplete.top-k:10}") int topK) {
+        this.repository = repository;
+        this.cepCache = cepCache;
+        this.topK = topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        repository.findAllTemplates().forEach(address -> record(address, 1));
+        cepCache.forEachLive((cep, address, expiresAt) -> record(address, 0));
+        log.info("Indexed " + size() + " ceps for autocomplete in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    //weight is the number of stored addresses the call accounts for, a cep only seen on ViaCEP is recorded with 0.
+    public void record(AddressTO address, int weight) {
+        int cep = address == null ? Cep.INVALID : Cep.parse(address.getCep());
+        if (cep == Cep.INVALID || address.getLogradouro() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer id = idsByCep.get(cep);
+            if (id != null && weight == 0) {
+                return;
+            }
+            if (id == null) {
+                id = suggestions.size();
+                idsByCep.put(cep, id);
+                suggestions.add(new AddressSuggestion(Cep.format(cep), address.getLogradouro(), address.getBairro(),
+                        address.getLocalidade(), address.getUf()));
+                if (id == weights.length) {
+                    weights = Arrays.copyOf(weights, id * 2);
+                }
+            }
+            weights[id] += weight;
+            for (String key : keysOf(cep, address.getLogradouro())) {
+                insert(key, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //the cep stays suggested, it is only used by one address fewer.
+    public void release(AddressTO address) {
+        int cep = address == null ? Cep.INVALID : Cep.parse(address.getCep());
+        if (cep == Cep.INVALID) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer id = idsByCep.get(cep);
+            if (id == null || weights[id] == 0) {
+                return;
+            }
+            weights[id]--;
+            for (String key : keysOf(cep, suggestions.get(id).getLogradouro())) {
+                rerank(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //releasing before the commit would undo a weight the rolled back delete never took away.
+    public void releaseAfterCommit(AddressTO address) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(address);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(address);
+            }
+        });
+    }
+
+    public List<AddressSuggestion> search(String query, int limit) {
+        String key = keyOf(query);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, node.topSize);
+            List<AddressSuggestion> result = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                result.add(suggestions.get(node.top[index]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return suggestions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //a query made of digits and an optional hyphen looks for ceps, anything else for streets.
+    private static String keyOf(String query) {
+        if (query == null) {
+            return "";
+        }
+        String trimmed = query.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().allMatch(character -> Character.isDigit(character) || character == '-')) {
+            return CEP_KEY + trimmed.replace("-", "");
+        }
+        return normalize(trimmed);
+    }
+
+    private static List<String> keysOf(int cep, String logradouro) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add(CEP_KEY + Cep.digits(cep));
+        String street = normalize(logradouro);
+        if (!street.isEmpty()) {
+            keys.add(street);
+            int firstSpace = street.indexOf(' ');
+            if (firstSpace > 0) {
+                keys.add(street.substring(firstSpace + 1));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String value) {
+        String withoutAccents = ACCENTS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int remaining = key.length() - position;
+            if (remaining <= child.label.length()) {
+                return child.label.regionMatches(0, key, position, remaining) ? child : null;
+            }
+            if (!key.startsWith(child.label, position)) {
+                return null;
+            }
+            position += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private void insert(String key, int id) {
+        Node node = root;
+        int position = 0;
+        offer(node, id);
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.addChild(child);
+                offer(child, id);
+                child.addEnd(id);
+                return;
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                child = split(node, child, common);
+            }
+            offer(child, id);
+            position += common;
+            node = child;
+        }
+        node.addEnd(id);
+    }
+
+    //ranks the nodes of the path bottom up, each one from the lists below it.
+    private void rerank(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            node = node.child(key.charAt(position));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+            position += node.label.length();
+        }
+        for (int index = path.size() - 1; index >= 0; index--) {
+            rank(path.get(index));
+        }
+    }
+
+    //the top ids of a subtree are among the keys ending on its root and the top ids of each child.
+    private void rank(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int index = 0; index < node.endsSize; index++) {
+            candidates.add(node.ends[index]);
+        }
+        for (Node child : node.children) {
+            for (int index = 0; index < child.topSize; index++) {
+                if (!candidates.contains(child.top[index])) {
+                    candidates.add(child.top[index]);
+                }
+            }
+        }
+        candidates.sort((first, second) -> Integer.compare(weights[second], weights[first]));
+        node.topSize = Math.min(topK, candidates.size());
+        node.top = new int[Math.max(1, node.topSize)];
+        for (int index = 0; index < node.topSize; index++) {
+            node.top[index] = candidates.get(index);
+        }
+    }
+
+    //the new middle node covers exactly the subtree of the old child, so it starts with the same top list.
+    private Node split(Node parent, Node child, int length) {
+        Node middle = new Node(child.label.substring(0, length));
+        middle.top = Arrays.copyOf(child.top, child.top.length);
+        middle.topSize = child.topSize;
+        parent.replaceChild(middle);
+        child.label = child.label.substring(length);
+        middle.addChild(child);
+        return middle;
+    }
+
+    private static int commonPrefix(String label, String key, int position) {
+        int length = 0;
+        while (length < label.length() && position + length < key.length()
+                && label.charAt(length) == key.charAt(position + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    //record only adds weight, so an id either climbs inside the list or enters it by beating the last one.
+    //release takes weight away and goes through rank instead.
+    private void offer(Node node, int id) {
+        int index = indexOf(node, id);
+        if (index < 0) {
+            if (node.topSize < topK) {
+                if (node.top.length == node.topSize) {
+                    node.top = Arrays.copyOf(node.top, Math.min(topK, Math.max(2, node.topSize * 2)));
+                }
+                index = node.topSize++;
+            } else if (weights[id] > weights[node.top[node.topSize - 1]]) {
+                index = node.topSize - 1;
+            } else {
+                return;
+            }
+            node.top[index] = id;
+        }
+        while (index > 0 && weights[node.top[index - 1]] < weights[id]) {
+            node.top[index] = node.top[index - 1];
+            node.top[--index] = id;
+        }
+    }
+
+    private static int indexOf(Node node, int id) {
+        for (int index = 0; index < node.topSize; index++) {
+            if (node.top[index] == id) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_IDS = new int[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int[] top = new int[1];
+        private int topSize;
+        //ids of the keys ending exactly on this node.
+        private int[] ends = NO_IDS;
+        private int endsSize;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = search(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int index = -search(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        private void addEnd(int id) {
+            for (int index = 0; index < endsSize; index++) {
+                if (ends[index] == id) {
+                    return;
+                }
+            }
+            if (endsSize == ends.length) {
+                ends = Arrays.copyOf(ends, Math.max(1, endsSize * 2));
+            }
+            ends[endsSize++] = id;
+        }
+
+        private void replaceChild(Node child) {
+            children[search(child.label.charAt(0))] = child;
+        }
+
+        private int search(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].label.charAt(0);
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.abneco.delivery.address.cep;
+
+/**
+ * A cep is eight digits, so it fits an int. Caches and the dataset key on the parsed value instead of the String the
+ * api receives, "04555-000" and "04555000" being the same key.
+ */
+public final class Cep {
+
+    public static final int INVALID = -1;
+
+    private Cep() {
+    }
+
+    public static int parse(String cep) {
+        if (cep == null) {
+            return INVALID;
+        }
+        int value = 0;
+        int digits = 0;
+        for (int index = 0; index < cep.length(); index++) {
+            char character = cep.charAt(index);
+            if (character >= '0' && character <= '9') {
+                value = value * 10 + (character - '0');
+                digits++;
+            } else if (character != '-' || index != 5) {
+                return INVALID;
+            }
+        }
+        return digits == 8 ? value : INVALID;
+    }
+
+    public static String digits(int cep) {
+        char[] digits = new char[8];
+        for (int index = 7; index >= 0; index--) {
+            digits[index] = (char) ('0' + cep % 10);
+            cep /= 10;
+        }
+        return new String(digits);
+    }
+
+    public static String format(int cep) {
+        String digits = digits(cep);
+        return digits.substring(0, 5) + "-" + digits.substring(5);
+    }
+}
@@ -0,0 +1,224 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import com.abneco.delivery.utils.TimeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cep lookups kept for a while, so the same cep is not asked to ViaCEP again. Entries live in primitive columns of
+ * open-addressing tables keyed by the int cep, split in segments that lock independently. Bairro, localidade, uf and
+ * complemento are stored as ids of shared dictionaries, which leaves the logradouro as the only String per entry.
+ */
+@Component
+public class CepCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final long DEFAULT_TTL_HOURS = 24;
+
+    private static final int SEGMENTS = 16;
+    private static final int EMPTY = -1;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final StringDictionary dictionary = new StringDictionary();
+    private final long ttlMillis;
+    private final TimeService timeService;
+
+    public CepCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_HOURS);
+    }
+
+    public CepCache(int maxEntries, long ttlHours) {
+        this(maxEntries, ttlHours, new TimeService());
+    }
+
+    @Autowired
+    public CepCache(@Value("${cep.cache.max-entries:100000}") int maxEntries,
+                    @Value("${cep.cache.ttl-hours:24}") long ttlHours,
+                    TimeService timeService) {
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.timeService = timeService;
+        int maxPerSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int index = 0; index < SEGMENTS; index++) {
+            segments[index] = new Segment(maxPerSegment);
+        }
+    }
+
+    public AddressTO get(int cep) {
+        int hash = hash(cep);
+        return segmentFor(hash).get(cep, hash, timeService.epochMillis());
+    }
+
+    public void put(int cep, AddressTO address) {
+        restore(cep, address, timeService.epochMillis() + ttlMillis);
+    }
+
+    //used by the snapshot, which keeps the original expiry so a restart does not extend an entry's life.
+    public void restore(int cep, AddressTO address, long expiresAt) {
+        if (address == null || expiresAt <= timeService.epochMillis()) {
+            return;
+        }
+        int hash = hash(cep);
+        segmentFor(hash).put(cep, hash, expiresAt, address.getLogradouro(),
+                dictionary.idOf(address.getComplemento()), dictionary.idOf(address.getBairro()),
+                dictionary.idOf(address.getLocalidade()), dictionary.idOf(address.getUf()));
+    }
+
+    public void forEachLive(EntryConsumer consumer) {
+        long now = timeService.epochMillis();
+        for (Segment segment : segments) {
+            segment.forEachLive(now, consumer);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> 28];
+    }
+
+    //ceps are dense and sequential, the multiplication spreads them over the segments and the slots.
+    private static int hash(int cep) {
+        int hash = cep * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int cep, AddressTO address, long expiresAt);
+    }
+
+    private final class Segment {
+        private final int maxEntries;
+        private int size;
+        private int[] keys;
+        private long[] expiresAt;
+        private String[] logradouro;
+        private int[] complemento;
+        private int[] bairro;
+        private int[] localidade;
+        private int[] uf;
+
+        private Segment(int maxEntries) {
+            this.maxEntries = maxEntries;
+            allocate(16);
+        }
+
+        private synchronized AddressTO get(int cep, int hash, long now) {
+            int slot = find(cep, hash);
+            if (keys[slot] == EMPTY || expiresAt[slot] < now) {
+                return null;
+            }
+            return toAddress(slot);
+        }
+
+        private synchronized void put(int cep, int hash, long expiry, String street, int complementoId,
+                                      int bairroId, int localidadeId, int ufId) {
+            int slot = find(cep, hash);
+            if (keys[slot] == EMPTY) {
+                if (size >= maxEntries) {
+                    evict(timeService.epochMillis());
+                } else if ((size + 1) * 4 > keys.length * 3) {
+                    rebuild(keys.length * 2, timeService.epochMillis(), false);
+                }
+                slot = find(cep, hash);
+                keys[slot] = cep;
+                size++;
+            }
+            expiresAt[slot] = expiry;
+            logradouro[slot] = street;
+            complemento[slot] = complementoId;
+            bairro[slot] = bairroId;
+            localidade[slot] = localidadeId;
+            uf[slot] = ufId;
+        }
+
+        private synchronized void forEachLive(long now, EntryConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && expiresAt[slot] >= now) {
+                    consumer.accept(keys[slot], toAddress(slot), expiresAt[slot]);
+                }
+            }
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private int find(int cep, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != EMPTY && keys[slot] != cep) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private AddressTO toAddress(int slot) {
+            return AddressTO.builder()
+                    .cep(Cep.format(keys[slot]))
+                    .logradouro(logradouro[slot])
+                    .complemento(dictionary.valueOf(complemento[slot]))
+                    .bairro(dictionary.valueOf(bairro[slot]))
+                    .localidade(dictionary.valueOf(localidade[slot]))
+                    .uf(dictionary.valueOf(uf[slot]))
+                    .build();
+        }
+
+        //drops expired entries first and, when that is not enough, an arbitrary tenth of the segment.
+        private void evict(long now) {
+            rebuild(keys.length, now, false);
+            if (size >= maxEntries) {
+                rebuild(keys.length, now, true);
+            }
+        }
+
+        private void rebuild(int capacity, long now, boolean dropTenth) {
+            int[] oldKeys = keys;
+            long[] oldExpiresAt = expiresAt;
+            String[] oldLogradouro = logradouro;
+            int[] oldComplemento = complemento;
+            int[] oldBairro = bairro;
+            int[] oldLocalidade = localidade;
+            int[] oldUf = uf;
+            allocate(capacity);
+            size = 0;
+            int live = 0;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == EMPTY || oldExpiresAt[old] < now || (dropTenth && live++ % 10 == 0)) {
+                    continue;
+                }
+                int slot = find(oldKeys[old], hash(oldKeys[old]));
+                keys[slot] = oldKeys[old];
+                expiresAt[slot] = oldExpiresAt[old];
+                logradouro[slot] = oldLogradouro[old];
+                complemento[slot] = oldComplemento[old];
+                bairro[slot] = oldBairro[old];
+                localidade[slot] = oldLocalidade[old];
+                uf[slot] = oldUf[old];
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            expiresAt = new long[capacity];
+            logradouro = new String[capacity];
+            complemento = new int[capacity];
+            bairro = new int[capacity];
+            localidade = new int[capacity];
+            uf = new int[capacity];
+        }
+    }
+}
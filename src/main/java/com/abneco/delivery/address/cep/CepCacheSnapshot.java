@@ -0,0 +1,167 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps the cep cache across restarts. The file is a header (magic, version, entry count) followed by one record
+ * per entry: the expiry in epoch millis, the cep as an int and the AddressTO strings, each prefixed by its UTF-8
+ * length, -1 meaning null.
+ */
+@Component
+@Slf4j
+public class CepCacheSnapshot {
+
+    private static final int MAGIC = 0x43455043;
+    private static final int VERSION = 1;
+    //expiry, cep and six null strings.
+    private static final int MIN_RECORD_BYTES = Long.BYTES + Integer.BYTES + 6 * Integer.BYTES;
+
+    private final CepCache cache;
+    private final Path path;
+
+    @Autowired
+    public CepCacheSnapshot(CepCache cache, @Value("${cep.cache.snapshot.path:}") String path) {
+        this.cache = cache;
+        this.path = path.isBlank() ? null : Paths.get(path);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (path == null || !Files.isReadable(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.error("Ignoring cep cache snapshot " + path + ", unknown format.");
+                return;
+            }
+            int count = buffer.getInt();
+            //sizes come from the file, checking them first keeps a corrupt one from allocating gigabytes.
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_BYTES) {
+                throw new BufferUnderflowException();
+            }
+            long[] expiresAt = new long[count];
+            int[] ceps = new int[count];
+            AddressTO[] addresses = new AddressTO[count];
+            for (int index = 0; index < count; index++) {
+                expiresAt[index] = buffer.getLong();
+                ceps[index] = buffer.getInt();
+                addresses[index] = AddressTO.builder()
+                        .cep(readString(buffer))
+                        .logradouro(readString(buffer))
+                        .complemento(readString(buffer))
+                        .bairro(readString(buffer))
+                        .localidade(readString(buffer))
+                        .uf(readString(buffer))
+                        .build();
+            }
+            //nothing is restored from a snapshot that could not be read to the end.
+            for (int index = 0; index < count; index++) {
+                cache.restore(ceps[index], addresses[index], expiresAt[index]);
+            }
+            log.info("Loaded " + cache.size() + " ceps from " + path + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (IOException | BufferUnderflowException e) {
+            log.error("Could not load cep cache snapshot " + path + ". " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${cep.cache.snapshot.interval-ms:300000}",
+            initialDelayString = "${cep.cache.snapshot.interval-ms:300000}")
+    public void save() {
+        if (path == null) {
+            return;
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                write(temporary);
+                //readers only ever see a complete snapshot, either the previous one or this one.
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Could not save cep cache snapshot " + path + ". " + e.getMessage());
+        }
+    }
+
+    private void write(Path target) throws IOException {
+        int[] written = {0};
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            //the count is not known before iterating, so the records are written after a placeholder header.
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(0);
+            cache.forEachLive((cep, address, expiresAt) -> {
+                try {
+                    out.writeLong(expiresAt);
+                    out.writeInt(cep);
+                    writeString(out, address.getCep());
+                    writeString(out, address.getLogradouro());
+                    writeString(out, address.getComplemento());
+                    writeString(out, address.getBairro());
+                    writeString(out, address.getLocalidade());
+                    writeString(out, address.getUf());
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, written[0]), 2L * Integer.BYTES);
+            channel.force(true);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
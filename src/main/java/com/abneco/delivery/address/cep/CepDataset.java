@@ -0,0 +1,145 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view over the national cep base compiled by {@link CepDatasetImporter}. The file stays off the heap,
+ * lookups binary search the mapped keys and only the returned AddressTO is allocated.
+ * <p>
+ * Layout, all ints big-endian: a header (magic, version, rows, dictionary entries, dictionary bytes), the sorted
+ * ceps, three dictionary ids per row (bairro, localidade, uf), rows + 1 offsets into the logradouro text,
+ * dictionary entries + 1 offsets into the dictionary bytes, the dictionary bytes and the logradouro text.
+ */
+@Component
+@Slf4j
+public class CepDataset {
+
+    static final int MAGIC = 0x43455044;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES;
+    static final int COLUMNS = 3;
+
+    private final Path path;
+    private ByteBuffer buffer;
+    private String[] dictionary = new String[0];
+    private int rows;
+    private int columnsAt;
+    private int logradouroOffsetsAt;
+    private int textAt;
+
+    public static CepDataset empty() {
+        return new CepDataset("");
+    }
+
+    @Autowired
+    public CepDataset(@Value("${cep.dataset.path:}") String path) {
+        this.path = path.isBlank() ? null : Paths.get(path);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (path == null) {
+            return;
+        }
+        if (!Files.isReadable(path)) {
+            log.error("Cep dataset " + path + " not found, ceps will be looked up on ViaCEP.");
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(Integer.BYTES) != VERSION) {
+                log.error("Ignoring cep dataset " + path + ", unknown format.");
+                return;
+            }
+            int rowCount = mapped.getInt(2 * Integer.BYTES);
+            int dictionaryEntries = mapped.getInt(3 * Integer.BYTES);
+            int dictionaryBytes = mapped.getInt(4 * Integer.BYTES);
+            int dictionaryOffsetsAt = HEADER_BYTES + rowCount * Integer.BYTES * (1 + COLUMNS + 1) + Integer.BYTES;
+            int dictionaryAt = dictionaryOffsetsAt + (dictionaryEntries + 1) * Integer.BYTES;
+
+            //the dictionary holds a few thousand cities and neighbourhoods, decoding it once keeps lookups cheap.
+            String[] decoded = new String[dictionaryEntries];
+            for (int id = 0; id < dictionaryEntries; id++) {
+                int start = mapped.getInt(dictionaryOffsetsAt + id * Integer.BYTES);
+                int end = mapped.getInt(dictionaryOffsetsAt + (id + 1) * Integer.BYTES);
+                decoded[id] = decode(mapped, dictionaryAt + start, end - start);
+            }
+            this.dictionary = decoded;
+            this.rows = rowCount;
+            this.columnsAt = HEADER_BYTES + rowCount * Integer.BYTES;
+            this.logradouroOffsetsAt = columnsAt + rowCount * COLUMNS * Integer.BYTES;
+            this.textAt = dictionaryAt + dictionaryBytes;
+            this.buffer = mapped;
+            log.info("Mapped " + rowCount + " ceps from " + path + ".");
+        } catch (IOException | IndexOutOfBoundsException e) {
+            log.error("Could not map cep dataset " + path + ". " + e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return buffer != null;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public AddressTO find(int cep) {
+        if (buffer == null) {
+            return null;
+        }
+        int row = indexOf(cep);
+        if (row < 0) {
+            return null;
+        }
+        int columns = columnsAt + row * COLUMNS * Integer.BYTES;
+        int start = buffer.getInt(logradouroOffsetsAt + row * Integer.BYTES);
+        int end = buffer.getInt(logradouroOffsetsAt + (row + 1) * Integer.BYTES);
+        return AddressTO.builder()
+                .cep(Cep.format(cep))
+                .logradouro(decode(buffer, textAt + start, end - start))
+                .bairro(dictionary[buffer.getInt(columns)])
+                .localidade(dictionary[buffer.getInt(columns + Integer.BYTES)])
+                .uf(dictionary[buffer.getInt(columns + 2 * Integer.BYTES)])
+                .build();
+    }
+
+    private int indexOf(int cep) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int key = buffer.getInt(HEADER_BYTES + middle * Integer.BYTES);
+            if (key < cep) {
+                low = middle + 1;
+            } else if (key > cep) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(ByteBuffer source, int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int index = 0; index < length; index++) {
+            bytes[index] = source.get(position + index);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.abneco.delivery.address.cep;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the national cep base into the file read by {@link CepDataset}. The input is a UTF-8 file with one
+ * {@code cep;logradouro;bairro;localidade;uf} line per cep, a header line is skipped. When a cep shows up twice the
+ * last line wins.
+ * <p>
+ * Usage: {@code java -cp target/classes com.abneco.delivery.address.cep.CepDatasetImporter ceps.csv ceps.bin}
+ */
+public final class CepDatasetImporter {
+
+    private CepDatasetImporter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CepDatasetImporter <input.csv> <output.bin>");
+            System.exit(1);
+        }
+        int rows = compile(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Compiled " + rows + " ceps into " + args[1] + ".");
+    }
+
+    public static int compile(Path input, Path output) throws IOException {
+        Map<Integer, String[]> byCep = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(";", -1);
+                int cep = fields.length == 5 ? Cep.parse(fields[0].trim()) : Cep.INVALID;
+                if (cep != Cep.INVALID) {
+                    byCep.put(cep, fields);
+                }
+            }
+        }
+        List<Map.Entry<Integer, String[]>> rows = new ArrayList<>(byCep.entrySet());
+        rows.sort(Comparator.comparingInt(Map.Entry::getKey));
+
+        Map<String, Integer> dictionaryIds = new HashMap<>();
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        List<Integer> dictionaryOffsets = new ArrayList<>();
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        int[] columns = new int[rows.size() * CepDataset.COLUMNS];
+        int[] logradouroOffsets = new int[rows.size() + 1];
+
+        for (int row = 0; row < rows.size(); row++) {
+            String[] fields = rows.get(row).getValue();
+            logradouroOffsets[row] = text.size();
+            text.writeBytes(fields[1].trim().getBytes(StandardCharsets.UTF_8));
+            for (int column = 0; column < CepDataset.COLUMNS; column++) {
+                String value = fields[2 + column].trim();
+                columns[row * CepDataset.COLUMNS + column] = dictionaryIds.computeIfAbsent(value, key -> {
+                    dictionaryOffsets.add(dictionary.size());
+                    dictionary.writeBytes(key.getBytes(StandardCharsets.UTF_8));
+                    return dictionaryOffsets.size() - 1;
+                });
+            }
+        }
+        logradouroOffsets[rows.size()] = text.size();
+        dictionaryOffsets.add(dictionary.size());
+
+        Path directory = output.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, output.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(CepDataset.MAGIC);
+                out.writeInt(CepDataset.VERSION);
+                out.writeInt(rows.size());
+                out.writeInt(dictionaryOffsets.size() - 1);
+                out.writeInt(dictionary.size());
+                for (Map.Entry<Integer, String[]> row : rows) {
+                    out.writeInt(row.getKey());
+                }
+                for (int id : columns) {
+                    out.writeInt(id);
+                }
+                for (int offset : logradouroOffsets) {
+                    out.writeInt(offset);
+                }
+                for (int offset : dictionaryOffsets) {
+                    out.writeInt(offset);
+                }
+                dictionary.writeTo(out);
+                text.writeTo(out);
+            }
+            Files.move(temporary, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return rows.size();
+    }
+}
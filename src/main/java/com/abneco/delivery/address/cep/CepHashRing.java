@@ -0,0 +1,94 @@
+package com.abneco.delivery.address.cep;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Consistent-hash ring over the configured peers. Each peer is placed on the ring at several virtual points so
+ * the cep space stays evenly split, and adding or removing a peer only moves the ceps next to its points.
+ */
+@Component
+public class CepHashRing {
+
+    @Getter
+    private final boolean enabled;
+    @Getter
+    private final String self;
+    private final long[] points;
+    private final String[] owners;
+
+    public static CepHashRing disabled() {
+        return new CepHashRing(false, "", List.of(), 0);
+    }
+
+    @Autowired
+    public CepHashRing(@Value("${cep.cluster.enabled:false}") boolean enabled,
+                       @Value("${cep.cluster.self:}") String self,
+                       @Value("${cep.cluster.peers:}") List<String> peers,
+                       @Value("${cep.cluster.virtual-nodes:128}") int virtualNodes) {
+        List<String> members = peers.stream().map(String::trim).filter(peer -> !peer.isEmpty())
+                .distinct().collect(Collectors.toList());
+        if (enabled && (self.isBlank() || !members.contains(self))) {
+            throw new IllegalArgumentException("cep.cluster.self must be one of cep.cluster.peers.");
+        }
+        this.enabled = enabled && members.size() > 1;
+        this.self = self;
+
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String member : members) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.putIfAbsent(hash(member + "#" + replica), member);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int index = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            points[index] = point.getKey();
+            owners[index++] = point.getValue();
+        }
+    }
+
+    public String ownerOf(int cep) {
+        if (!enabled) {
+            return self;
+        }
+        int index = Arrays.binarySearch(points, mix(cep));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public boolean isSelf(String owner) {
+        return self.equals(owner);
+    }
+
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte character : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= character;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    //the murmur3 finalizer, so consecutive ceps spread over the whole ring.
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
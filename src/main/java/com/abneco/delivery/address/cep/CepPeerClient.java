@@ -0,0 +1,41 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+@Component
+@Slf4j
+public class CepPeerClient {
+
+    public static final String OWNED_CEP_PATH = "/internal/cep/";
+
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    public CepPeerClient(@Value("${cep.cluster.connect-timeout-ms:200}") int connectTimeoutMs,
+                         @Value("${cep.cluster.read-timeout-ms:2000}") int readTimeoutMs) {
+        //a peer that does not answer quickly is treated as down, the caller then asks ViaCEP itself.
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    public CepPeerClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public AddressTO fetch(String owner, int cep) {
+        try {
+            return restTemplate.getForObject(owner + OWNED_CEP_PATH + Cep.digits(cep), AddressTO.class);
+        } catch (Exception e) {
+            log.error("Could not get cep " + cep + " from " + owner + ". " + e.getMessage());
+            return null;
+        }
+    }
+}
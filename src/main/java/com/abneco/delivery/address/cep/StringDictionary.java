@@ -0,0 +1,49 @@
+package com.abneco.delivery.address.cep;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives each distinct value an int id, so thousands of cached ceps from the same city share one "São Paulo".
+ * Meant for low-cardinality columns only, ids are never released.
+ */
+public class StringDictionary {
+
+    public static final int NULL_ID = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[256];
+    private int size;
+
+    public int idOf(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        return id != null ? id : add(value);
+    }
+
+    public String valueOf(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int add(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        ids.put(value, size);
+        return size++;
+    }
+}
@@ -1,14 +1,37 @@
 package com.abneco.delivery.address.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class AddressClient {
 
+    //interrupting a lookup does not unblock a socket read, only these timeouts free a thread stuck on ViaCEP.
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${address.viacep.connect-timeout-ms:1000}") int connectTimeoutMs,
+                                     @Value("${address.viacep.read-timeout-ms:3000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+
+    //a full queue rejects the lookup right away instead of piling up requests behind a slow ViaCEP.
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cepLookupExecutor(@Value("${address.cep-lookup.threads:16}") int threads,
+                                             @Value("${address.cep-lookup.queue-capacity:64}") int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cep-lookup-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.abneco.delivery.address.controller;
 
 import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.address.dto.AddressPatchForm;
 import com.abneco.delivery.address.dto.AddressResponse;
+import com.abneco.delivery.address.dto.AddressSuggestion;
 import com.abneco.delivery.address.dto.AddressUpdateForm;
 import com.abneco.delivery.address.service.AddressService;
 import lombok.AllArgsConstructor;
@@ -10,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
 import java.util.List;
 
 @RestController
@@ -36,12 +39,24 @@ public class AddressController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/autocomplete")
+    @ResponseStatus(HttpStatus.OK)
+    public List<AddressSuggestion> autocomplete(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return service.autocomplete(q, limit);
+    }
+
     @PutMapping("")
     @ResponseStatus(HttpStatus.OK)
     public void updateAddress(@RequestBody AddressUpdateForm form) {
         service.updateAddress(form);
     }
 
+    @PatchMapping("/{addressId}")
+    @ResponseStatus(HttpStatus.OK)
+    public void patchAddress(@PathVariable String addressId, @Valid @RequestBody AddressPatchForm form) {
+        service.patchAddress(addressId, form);
+    }
+
     @DeleteMapping("/{addressId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteAddressById(@PathVariable String addressId) {
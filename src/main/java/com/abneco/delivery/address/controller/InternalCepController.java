@@ -0,0 +1,23 @@
+package com.abneco.delivery.address.controller;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import com.abneco.delivery.address.service.AddressService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/internal/cep")
+@AllArgsConstructor
+public class InternalCepController {
+
+    @Autowired
+    private AddressService service;
+
+    @GetMapping("/{cep}")
+    @ResponseStatus(HttpStatus.OK)
+    public AddressTO getOwnedAddressTemplate(@PathVariable String cep) {
+        return service.getOwnedAddressTemplate(cep);
+    }
+}
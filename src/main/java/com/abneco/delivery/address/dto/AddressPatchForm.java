@@ -0,0 +1,26 @@
+package com.abneco.delivery.address.dto;
+
+import com.abneco.delivery.validation.Matchers;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddressPatchForm {
+
+    private String cep;
+    private String complemento;
+    private Integer numero;
+
+    //the same rule as every other cep, so 04555-000 is accepted as well as 04555000.
+    @JsonIgnore
+    @AssertTrue(message = "Please verify if cep has 8 numbers, and numbers only.")
+    public boolean isCepValid() {
+        return cep == null || Matchers.isCep(cep);
+    }
+}
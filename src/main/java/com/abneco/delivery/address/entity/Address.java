@@ -2,9 +2,16 @@ package com.abneco.delivery.address.entity;
 
 import com.abneco.delivery.address.dto.AddressForm;
 import com.abneco.delivery.address.dto.AddressResponse;
+import com.abneco.delivery.address.dto.AddressTO;
+import com.abneco.delivery.persistence.BinaryUuidType;
+import com.abneco.delivery.persistence.TimeOrderedUuidGenerator;
 import com.abneco.delivery.user.entity.Seller;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -14,14 +21,18 @@ import javax.validation.constraints.Size;
 @AllArgsConstructor
 @Builder
 @Entity(name = "ADDRESS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address")
+@DynamicUpdate
 @Getter
 @Setter
 public class Address {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
-    @Column(name = "address_id")
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = TimeOrderedUuidGenerator.NAME)
+    @Type(type = BinaryUuidType.NAME)
+    @Column(name = "address_id", columnDefinition = "BINARY(16)")
     private String id;
 
     @NotNull
@@ -47,7 +58,7 @@ public class Address {
     private Integer numero;
 
     @OneToOne
-    @JoinColumn(name = "seller_fk")
+    @JoinColumn(name = "seller_fk", columnDefinition = "BINARY(16)")
     private Seller seller;
 
 
@@ -76,4 +87,8 @@ public class Address {
         return response;
     }
 
+    public AddressTO toTemplate() {
+        return new AddressTO(this.cep, this.logradouro, this.complemento, this.bairro, this.cidade, this.uf);
+    }
+
 }
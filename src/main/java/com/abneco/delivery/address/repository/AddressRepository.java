@@ -1,20 +1,29 @@
 package com.abneco.delivery.address.repository;
 
+import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AddressRepository extends JpaRepository<Address, String> {
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "address-by-seller")})
     Optional<Address> findBySellerId(String userId);
 
-    @Modifying
-    @Query("delete from ADDRESS where address_id=:addressId")
-    void deleteById(@Param("addressId") String addressId);
+    @Query("select new com.abneco.delivery.address.dto.AddressTO(a.cep, a.logradouro, a.complemento, a.bairro, a.cidade, a.uf) "
+            + "from ADDRESS as a")
+    List<AddressTO> findAllTemplates();
+
+    @Query("select count(a) > 0 from ADDRESS as a where a.seller.id=:sellerId")
+    boolean existsBySellerId(@Param("sellerId") String sellerId);
 }
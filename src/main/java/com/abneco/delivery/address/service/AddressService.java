@@ -1,27 +1,55 @@
 package com.abneco.delivery.address.service;
 
+import com.abneco.delivery.address.autocomplete.AddressAutocompleteIndex;
+import com.abneco.delivery.address.cep.Cep;
+import com.abneco.delivery.address.cep.CepCache;
+import com.abneco.delivery.address.cep.CepDataset;
+import com.abneco.delivery.address.cep.CepHashRing;
+import com.abneco.delivery.address.cep.CepPeerClient;
 import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.address.dto.AddressPatchForm;
 import com.abneco.delivery.address.dto.AddressResponse;
+import com.abneco.delivery.address.dto.AddressSuggestion;
 import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.dto.AddressUpdateForm;
 import com.abneco.delivery.address.entity.Address;
 import com.abneco.delivery.address.repository.AddressRepository;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.service.OutboxService;
 import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.repository.SellerRepository;
+import com.abneco.delivery.validation.FormValidator;
+import com.abneco.delivery.validation.Violation;
+import com.abneco.delivery.validation.Violations;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Setter
@@ -38,17 +66,107 @@ public class AddressService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("cepLookupExecutor")
+    private ExecutorService cepLookupExecutor;
+
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private CepDataset cepDataset;
+
+    @Autowired
+    private CepCache cepCache;
+
+    @Autowired
+    private CepHashRing cepRing;
+
+    @Autowired
+    private CepPeerClient cepPeerClient;
+
+    @Autowired
+    private AddressAutocompleteIndex autocompleteIndex;
+
+    @Value("${address.cep-lookup.timeout-ms:5000}")
+    private long cepLookupTimeoutMs = CEP_LOOKUP_TIMEOUT_MS;
+
+    public static final long CEP_LOOKUP_TIMEOUT_MS = 5000;
+    public static final String CEP_LOOKUP_UNAVAILABLE = "Cep lookup is unavailable right now, please try again.";
+
+    public AddressService(AddressRepository repository, SellerRepository sellerRepository, RestTemplate restTemplate,
+                          OutboxService outbox, DomainEventBus eventBus) {
+        this(repository, sellerRepository, restTemplate, ForkJoinPool.commonPool(), outbox,
+                TransactionOperations.withoutTransaction(), eventBus, CepDataset.empty(), new CepCache(), CepHashRing.disabled(), null,
+                new AddressAutocompleteIndex(), CEP_LOOKUP_TIMEOUT_MS);
+    }
+
     public AddressService(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
+        this.cepDataset = CepDataset.empty();
+        this.cepCache = new CepCache();
+        this.cepRing = CepHashRing.disabled();
+        this.autocompleteIndex = new AddressAutocompleteIndex();
     }
 
     public AddressService(AddressRepository repository) {
         this.repository = repository;
     }
 
-    public static final String ADDRESS_NUMBER_NOT_NULL_MESSAGE = "Address number must not be null.";
-
     public AddressTO getAddressTemplate(String cep) {
+        int key = Cep.parse(cep);
+        if (key == Cep.INVALID) {
+            throw invalidCep();
+        }
+        AddressTO known = cepDataset.find(key);
+        if (known != null) {
+            return known;
+        }
+        AddressTO cached = cepCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String owner = cepRing.ownerOf(key);
+        if (cepRing.isEnabled() && !cepRing.isSelf(owner)) {
+            AddressTO forwarded = cepPeerClient.fetch(owner, key);
+            if (forwarded != null) {
+                return forwarded;
+            }
+        }
+        return lookupAndCache(key);
+    }
+
+    //called by the peers that forward the ceps this node owns, it never forwards again.
+    public AddressTO getOwnedAddressTemplate(String cep) {
+        int key = Cep.parse(cep);
+        if (key == Cep.INVALID) {
+            throw invalidCep();
+        }
+        AddressTO known = cepDataset.find(key);
+        if (known != null) {
+            return known;
+        }
+        AddressTO cached = cepCache.get(key);
+        return cached != null ? cached : lookupAndCache(key);
+    }
+
+    private AddressTO lookupAndCache(int cep) {
+        AddressTO addressTO = fetchAddressTemplate(Cep.digits(cep));
+        //ViaCEP answers an unknown cep with an empty body, which is not worth keeping.
+        if (addressTO != null && addressTO.getLocalidade() != null) {
+            cepCache.put(cep, addressTO);
+            autocompleteIndex.record(addressTO, 0);
+        }
+        return addressTO;
+    }
+
+    private AddressTO fetchAddressTemplate(String cep) {
         try {
             String url = "https://viacep.com.br/ws/" + cep + "/json/";
             ResponseEntity<AddressTO> response = restTemplate.getForEntity(url, AddressTO.class);
@@ -56,39 +174,41 @@ public class AddressService {
 
         } catch (Exception e) {
 
-            log.error("Please verify if cep has 8 numbers, and numbers only.");
+            log.error("Please verify if cep has 8 numbers, and numbers only.", e);
             throw new RequestException("Please verify if cep has 8 numbers, and numbers only.");
         }
     }
 
+    public List<AddressSuggestion> autocomplete(String query, int limit) {
+        return autocompleteIndex.search(query, limit);
+    }
+
     public void registerAddressByCep(AddressForm form) {
+        //the cep lookup does not depend on the seller, so it runs while the seller is being loaded.
+        Future<AddressTO> addressTemplate = submitLookup(form.getCep());
         try {
             Optional<Seller> seller = sellerRepository.findById(form.getUserId());
             if (seller.isEmpty()) {
                 throw new RequestException("User does not exist.");
             }
-            if (seller.get().getAddress() != null) {
+            if (repository.existsBySellerId(form.getUserId())) {
                 throw new RequestException("User must only has one address.");
             }
-            AddressTO addressTO = getAddressTemplate(form.getCep());
             Address address = new Address();
             address.setSeller(seller.get());
-            address.setCep(form.getCep());
-            address.setLogradouro(addressTO.getLogradouro());
+            applyAddressTemplate(address, form.getCep(), await(addressTemplate));
             address.setComplemento(form.getComplemento());
-            address.setBairro(addressTO.getBairro());
-            address.setCidade(addressTO.getLocalidade());
-            address.setUf(addressTO.getUf());
             address.setNumero(form.getNumero());
 
-            save(address, form);
-        } catch (RequestException e) {
-            throw new RequestException(e.getMessage());
+            save(address, form, OutboxEventType.ADDRESS_REGISTERED);
+        } catch (RequestException | ServiceUnavailableException e) {
+            throw e;
 
         } catch (Exception e) {
-            e.printStackTrace();
-            log.error("Could not register address by cep. " + e.getMessage());
+            log.error("Could not register address by cep.", e);
             throw new RequestException("Could not register address by cep.");
+        } finally {
+            addressTemplate.cancel(true);
         }
     }
 
@@ -102,15 +222,22 @@ public class AddressService {
             }
             return response;
         } catch (Exception e) {
-            log.error("Could not get all addresses. " + e.getMessage());
+            log.error("Could not get all addresses.", e);
             throw new RequestException("Could not get all addresses.");
         }
     }
 
     public void updateAddress(AddressUpdateForm form) {
+        Future<AddressTO> addressTemplate = null;
         try {
-            Optional<Seller> optionalSeller = sellerRepository.findById(form.getUserId());
             Optional<Address> optionalAddress = repository.findById(form.getAddressId());
+            //the stored logradouro, bairro, cidade and uf are still valid when the cep did not change.
+            boolean cepChanged = optionalAddress.isPresent()
+                    && !Objects.equals(form.getCep(), optionalAddress.get().getCep());
+            if (cepChanged) {
+                addressTemplate = submitLookup(form.getCep());
+            }
+            Optional<Seller> optionalSeller = sellerRepository.findById(form.getUserId());
             if (optionalSeller.isEmpty()) {
                 throw new ResourceNotFoundException("Seller not found.");
             }
@@ -119,54 +246,168 @@ public class AddressService {
             }
 
             Address address = optionalAddress.get();
-
-            AddressTO searchByCep = this.getAddressTemplate(form.getCep());
-            address.setCep(form.getCep());
-            address.setLogradouro(searchByCep.getLogradouro());
-            address.setBairro(searchByCep.getBairro());
-            address.setCidade(searchByCep.getLocalidade());
-            address.setUf(searchByCep.getUf());
+            if (!cepChanged && Objects.equals(address.getComplemento(), form.getComplemento())
+                    && Objects.equals(address.getNumero(), form.getNumero())) {
+                return;
+            }
+            AddressTO previous = null;
+            if (cepChanged) {
+                previous = address.toTemplate();
+                applyAddressTemplate(address, form.getCep(), await(addressTemplate));
+            }
             address.setComplemento(form.getComplemento());
             address.setNumero(form.getNumero());
-            save(address, form);
+            save(address, form, previous);
 
         } catch (ResourceNotFoundException e) {
             log.error(e.getMessage());
-            throw new ResourceNotFoundException(e.getMessage());
-        } catch (RequestException e) {
+            throw e;
+        } catch (RequestException | ServiceUnavailableException e) {
             log.error(e.getMessage());
-            throw new RequestException(e.getMessage());
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            log.error("Could not update address. " + e.getMessage());
+            log.error("Could not update address.", e);
             throw new RequestException("Could not update address.");
+        } finally {
+            if (addressTemplate != null) {
+                addressTemplate.cancel(true);
+            }
+        }
+    }
+
+    public void patchAddress(String addressId, AddressPatchForm form) {
+        try {
+            Optional<Address> optionalAddress = repository.findById(addressId);
+            if (optionalAddress.isEmpty()) {
+                throw new ResourceNotFoundException("Address not found.");
+            }
+            Address address = optionalAddress.get();
+            //stored as its eight digits, 04555-000 is the same cep as 04555000.
+            String cep = null;
+            if (form.getCep() != null) {
+                int key = Cep.parse(form.getCep());
+                if (key == Cep.INVALID) {
+                    throw invalidCep();
+                }
+                cep = Cep.digits(key);
+            }
+            boolean cepChanged = cep != null && !cep.equals(address.getCep());
+            boolean complementoChanged = form.getComplemento() != null
+                    && !form.getComplemento().equals(address.getComplemento());
+            boolean numeroChanged = form.getNumero() != null && !form.getNumero().equals(address.getNumero());
+            if (!cepChanged && !complementoChanged && !numeroChanged) {
+                return;
+            }
+            AddressTO previous = null;
+            if (cepChanged) {
+                previous = address.toTemplate();
+                applyAddressTemplate(address, cep, getAddressTemplate(cep));
+            }
+            if (complementoChanged) {
+                address.setComplemento(form.getComplemento());
+            }
+            if (numeroChanged) {
+                address.setNumero(form.getNumero());
+            }
+            saveWithEvent(address, OutboxEventType.ADDRESS_UPDATED, previous);
+
+        } catch (ResourceNotFoundException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (RequestException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Could not patch address.", e);
+            throw new RequestException("Could not patch address.");
         }
     }
 
+    @Transactional
     public void deleteAddressById(String addressId) {
+        //removing the loaded entity evicts only its own entry, a bulk delete would evict the whole address region.
         Optional<Address> optionalAddress = repository.findById(addressId);
         if (optionalAddress.isEmpty()) {
             throw new ResourceNotFoundException("Address not found.");
         }
-        repository.deleteById(addressId);
+        repository.delete(optionalAddress.get());
+        autocompleteIndex.releaseAfterCommit(optionalAddress.get().toTemplate());
+        outbox.record(OutboxEventType.ADDRESS_DELETED, addressId, null);
+        eventBus.publishAfterCommit(DomainEventType.ADDRESS_CHANGED, addressId, null);
     }
 
+    private static void applyAddressTemplate(Address address, String cep, AddressTO addressTO) {
+        address.setCep(cep);
+        address.setLogradouro(addressTO.getLogradouro());
+        address.setBairro(addressTO.getBairro());
+        address.setCidade(addressTO.getLocalidade());
+        address.setUf(addressTO.getUf());
+    }
 
-    private void save(Address address, AddressForm form) {
-        //getAddressTemplate already verifies the length of a cep, and therefore, it cannot be null.
-        if (form.getNumero() == null) {
-            log.error(ADDRESS_NUMBER_NOT_NULL_MESSAGE);
-            throw new RequestException(ADDRESS_NUMBER_NOT_NULL_MESSAGE);
+    private Future<AddressTO> submitLookup(String cep) {
+        try {
+            return cepLookupExecutor.submit(() -> getAddressTemplate(cep));
+        } catch (RejectedExecutionException e) {
+            log.error("Cep lookup queue is full. " + CEP_LOOKUP_UNAVAILABLE);
+            throw new ServiceUnavailableException(CEP_LOOKUP_UNAVAILABLE);
+        }
+    }
+
+    //the caller cancels the lookup in its finally block, which also covers a lookup that timed out here.
+    private AddressTO await(Future<AddressTO> addressTemplate) {
+        try {
+            return addressTemplate.get(cepLookupTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.error("Cep lookup took longer than " + cepLookupTimeoutMs + " ms.");
+            throw new ServiceUnavailableException(CEP_LOOKUP_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RequestException("Please verify if cep has 8 numbers, and numbers only.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException("Cep lookup was interrupted.");
         }
-        repository.save(address);
     }
 
-    private void save(Address address, AddressUpdateForm form) {
-        //getAddressTemplate already verifies the length of a cep, and therefore, it cannot be null.
-        if (form.getNumero() == null) {
-            log.error(ADDRESS_NUMBER_NOT_NULL_MESSAGE);
-            throw new RequestException(ADDRESS_NUMBER_NOT_NULL_MESSAGE);
+    private void save(Address address, AddressForm form, OutboxEventType eventType) {
+        rejectIfInvalid(FormValidator.validate(form));
+        saveWithEvent(address, eventType, null);
+    }
+
+    private void save(Address address, AddressUpdateForm form, AddressTO previous) {
+        rejectIfInvalid(FormValidator.validate(form));
+        saveWithEvent(address, OutboxEventType.ADDRESS_UPDATED, previous);
+    }
+
+    //getAddressTemplate has already rejected a malformed cep, so in practice only a missing number gets here.
+    private static void rejectIfInvalid(Violations violations) {
+        if (!violations.isValid()) {
+            log.error(violations.describe());
+            violations.throwIfInvalid();
+        }
+    }
+
+    //a malformed cep is answered without asking ViaCEP, which would only refuse it.
+    private static RequestException invalidCep() {
+        log.error(Violation.INVALID_CEP.getMessage());
+        return Violation.INVALID_CEP.toException();
+    }
+
+    //previous is the address as it was before its cep changed, null when the cep stayed the same.
+    private void saveWithEvent(Address address, OutboxEventType eventType, AddressTO previous) {
+        transactionOperations.executeWithoutResult(status -> {
+            repository.save(address);
+            outbox.record(eventType, address.getId(), address.toResponse(address.getSeller().getId()));
+        });
+        //the weight of a cep is the number of stored addresses using it, other updates leave it as it is.
+        if (previous != null) {
+            autocompleteIndex.release(previous);
+        }
+        if (eventType == OutboxEventType.ADDRESS_REGISTERED || previous != null) {
+            autocompleteIndex.record(address.toTemplate(), 1);
         }
-        repository.save(address);
+        eventBus.publish(DomainEventType.ADDRESS_CHANGED, address.getId(), address.getSeller().getId());
     }
 }
\ No newline at end of file
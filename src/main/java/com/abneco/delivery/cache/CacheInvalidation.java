@@ -0,0 +1,16 @@
+package com.abneco.delivery.cache;
+
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CacheInvalidation {
+
+    private final String aggregateType;
+    private final String aggregateId;
+    private final OutboxEventType eventType;
+}
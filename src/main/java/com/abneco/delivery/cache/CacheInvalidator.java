@@ -0,0 +1,39 @@
+package com.abneco.delivery.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@Component
+@Slf4j
+public class CacheInvalidator {
+
+    @Autowired(required = false)
+    private List<InvalidationTransport> transports = List.of();
+
+    @Autowired(required = false)
+    private List<InvalidationTarget> targets = List.of();
+
+    @PostConstruct
+    public void subscribe() {
+        for (InvalidationTransport transport : transports) {
+            transport.subscribe(this::invalidate);
+        }
+    }
+
+    public void invalidate(List<CacheInvalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        for (InvalidationTarget target : targets) {
+            try {
+                target.invalidate(invalidations);
+            } catch (RuntimeException e) {
+                log.error("Could not invalidate " + target.getClass().getSimpleName() + ". " + e.getMessage());
+            }
+        }
+    }
+}
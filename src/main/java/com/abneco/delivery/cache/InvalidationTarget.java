@@ -0,0 +1,8 @@
+package com.abneco.delivery.cache;
+
+import java.util.List;
+
+public interface InvalidationTarget {
+
+    void invalidate(List<CacheInvalidation> invalidations);
+}
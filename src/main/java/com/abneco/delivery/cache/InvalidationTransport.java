@@ -0,0 +1,10 @@
+package com.abneco.delivery.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface InvalidationTransport {
+
+    //delivers, in batches, the invalidations caused by writes on other nodes.
+    void subscribe(Consumer<List<CacheInvalidation>> listener);
+}
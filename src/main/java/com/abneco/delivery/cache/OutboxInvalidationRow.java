@@ -0,0 +1,22 @@
+package com.abneco.delivery.cache;
+
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class OutboxInvalidationRow {
+
+    private final Long outboxId;
+    private final LocalDateTime createdAt;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final OutboxEventType eventType;
+
+    public CacheInvalidation toInvalidation() {
+        return new CacheInvalidation(aggregateType, aggregateId, eventType);
+    }
+}
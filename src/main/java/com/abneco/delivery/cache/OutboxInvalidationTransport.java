@@ -0,0 +1,89 @@
+package com.abneco.delivery.cache;
+
+import com.abneco.delivery.config.NodeIdentity;
+import com.abneco.delivery.outbox.repository.OutboxEventRepository;
+import com.abneco.delivery.utils.TimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tails the outbox table for writes made by other nodes. Every poll re-reads an overlap window before the
+ * previous one, so rows from transactions that committed late or from nodes with a lagging clock are not
+ * skipped. The outbox ids delivered within that window are remembered, so each row is delivered only once.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "outbox", matchIfMissing = true)
+public class OutboxInvalidationTransport implements InvalidationTransport {
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private TimeService timeService;
+
+    public static final long OVERLAP_SECONDS = 10;
+
+    @Value("${cache.invalidation.overlap-seconds:10}")
+    private long overlapSeconds = OVERLAP_SECONDS;
+
+    private final List<Consumer<List<CacheInvalidation>>> listeners = new CopyOnWriteArrayList<>();
+    //outbox id -> createdAt of the rows already delivered and still inside the overlap window, polls run one at a time.
+    private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+    private LocalDateTime lastPoll;
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-ms:500}")
+    public void poll() {
+        LocalDateTime now = timeService.now();
+        LocalDateTime since = (lastPoll == null ? now : lastPoll).minusSeconds(overlapSeconds);
+        try {
+            List<OutboxInvalidationRow> rows = repository.findInvalidationsSince(since, nodeIdentity.getId());
+            lastPoll = now;
+            //rows older than the window are not read again, so they no longer need to be remembered.
+            delivered.values().removeIf(createdAt -> createdAt.isBefore(since));
+            List<OutboxInvalidationRow> fresh = new ArrayList<>();
+            Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+            for (OutboxInvalidationRow row : rows) {
+                if (!delivered.containsKey(row.getOutboxId())) {
+                    fresh.add(row);
+                    invalidations.add(row.toInvalidation());
+                }
+            }
+            if (invalidations.isEmpty()) {
+                return;
+            }
+            List<CacheInvalidation> batch = new ArrayList<>(invalidations);
+            for (Consumer<List<CacheInvalidation>> listener : listeners) {
+                listener.accept(batch);
+            }
+            //only once every listener took them, a failed delivery is retried by the next poll.
+            for (OutboxInvalidationRow row : fresh) {
+                delivered.put(row.getOutboxId(), row.getCreatedAt());
+            }
+        } catch (Exception e) {
+            log.error("Could not read cache invalidations since " + since + ". " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.abneco.delivery.cache;
+
+import com.abneco.delivery.address.entity.Address;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.user.entity.Seller;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+@Component
+public class SecondLevelCacheInvalidationTarget implements InvalidationTarget {
+
+    public static final String SELLER_QUERY_REGION = "seller-by-key";
+    public static final String ADDRESS_QUERY_REGION = "address-by-seller";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    //the update-timestamps region only knows about local writes, so the query regions are dropped as a whole.
+    @Override
+    public void invalidate(List<CacheInvalidation> invalidations) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean sellerChanged = false;
+        boolean addressChanged = false;
+        for (CacheInvalidation invalidation : invalidations) {
+            if (OutboxEventType.SELLER_DELETED == invalidation.getEventType()) {
+                //the seller's address went with it, and its id is not in the event.
+                cache.evictEntityData(Address.class);
+                addressChanged = true;
+            }
+            if ("SELLER".equals(invalidation.getAggregateType())) {
+                cache.evictEntityData(Seller.class, invalidation.getAggregateId());
+                sellerChanged = true;
+            } else if ("ADDRESS".equals(invalidation.getAggregateType())) {
+                cache.evictEntityData(Address.class, invalidation.getAggregateId());
+                addressChanged = true;
+            }
+        }
+        if (sellerChanged) {
+            cache.evictQueryRegion(SELLER_QUERY_REGION);
+        }
+        if (addressChanged) {
+            cache.evictQueryRegion(ADDRESS_QUERY_REGION);
+        }
+    }
+}
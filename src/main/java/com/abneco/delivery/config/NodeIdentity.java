@@ -0,0 +1,21 @@
+package com.abneco.delivery.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Getter
+@Component
+public class NodeIdentity {
+
+    private final String id;
+
+    //node.id is optional, a random id per start is enough to tell this node's own writes apart.
+    @Autowired
+    public NodeIdentity(@Value("${node.id:}") String id) {
+        this.id = id == null || id.isBlank() ? UUID.randomUUID().toString() : id;
+    }
+}
@@ -0,0 +1,26 @@
+package com.abneco.delivery.event;
+
+import lombok.Getter;
+
+//ring buffer slot, reused for every event that lands on it. Handlers must copy what they need instead of keeping it.
+@Getter
+public class DomainEvent {
+
+    private DomainEventType type;
+    private String aggregateId;
+    private String detail;
+    private long timestamp;
+
+    void set(DomainEventType type, String aggregateId, String detail, long timestamp) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.detail = detail;
+        this.timestamp = timestamp;
+    }
+
+    void clear() {
+        this.type = null;
+        this.aggregateId = null;
+        this.detail = null;
+    }
+}
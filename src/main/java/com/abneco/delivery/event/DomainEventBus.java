@@ -0,0 +1,164 @@
+package com.abneco.delivery.event;
+
+import com.abneco.delivery.utils.TimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, single-consumer ring buffer. Producers claim a sequence with a CAS, fill the preallocated slot
+ * and mark it published; the bus thread hands every published run of slots to the handlers as one batch.
+ * A full buffer drops the event instead of blocking the request thread.
+ */
+@Component
+@Slf4j
+public class DomainEventBus {
+
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private final DomainEvent[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final int batchSize;
+    private final DomainEventHandler[] handlers;
+    private final TimeService timeService;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public DomainEventBus(List<DomainEventHandler> handlers, int capacity, int batchSize) {
+        this(handlers, capacity, batchSize, new TimeService());
+    }
+
+    @Autowired
+    public DomainEventBus(List<DomainEventHandler> handlers,
+                          @Value("${event.bus.capacity:8192}") int capacity,
+                          @Value("${event.bus.batch-size:256}") int batchSize,
+                          TimeService timeService) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event bus capacity must be a power of two.");
+        }
+        this.ring = new DomainEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            ring[index] = new DomainEvent();
+            published.set(index, -1);
+        }
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.handlers = handlers.toArray(new DomainEventHandler[0]);
+        this.timeService = timeService;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "domain-event-bus");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean publish(DomainEventType type, String aggregateId, String detail) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            if (sequence - consumed > ring.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+
+        int index = (int) sequence & mask;
+        ring[index].set(type, aggregateId, detail, timeService.epochMillis());
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    //handlers must only see changes that were committed, a rolled back write publishes nothing.
+    public void publishAfterCommit(DomainEventType type, String aggregateId, String detail) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(type, aggregateId, detail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(type, aggregateId, detail);
+            }
+        });
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBacklog() {
+        return claimed.get() - consumed;
+    }
+
+    private void consume() {
+        long next = consumed + 1;
+        int idle = 0;
+        while (running || next <= claimed.get()) {
+            int count = 0;
+            while (count < batchSize && published.get((int) (next + count) & mask) == next + count) {
+                count++;
+            }
+            if (count == 0) {
+                if (++idle < SPINS_BEFORE_PARKING) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                continue;
+            }
+            idle = 0;
+            for (int offset = 0; offset < count; offset++) {
+                DomainEvent event = ring[(int) (next + offset) & mask];
+                dispatch(event, offset == count - 1);
+                event.clear();
+            }
+            next += count;
+            consumed = next - 1;
+        }
+    }
+
+    private void dispatch(DomainEvent event, boolean endOfBatch) {
+        for (DomainEventHandler handler : handlers) {
+            try {
+                handler.onEvent(event, endOfBatch);
+            } catch (RuntimeException e) {
+                log.error("Domain event handler " + handler.getClass().getSimpleName() + " failed on "
+                        + event.getType() + ". " + e.getMessage());
+            }
+        }
+    }
+}
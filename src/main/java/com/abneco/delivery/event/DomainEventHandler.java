@@ -0,0 +1,7 @@
+package com.abneco.delivery.event;
+
+public interface DomainEventHandler {
+
+    //called on the bus thread, endOfBatch lets a handler flush work it buffered for the batch.
+    void onEvent(DomainEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,22 @@
+package com.abneco.delivery.event;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class DomainEventMetrics implements DomainEventHandler {
+
+    private final AtomicLongArray counts = new AtomicLongArray(DomainEventType.values().length);
+
+    //only the bus thread writes, so a plain increment published with lazySet is enough.
+    @Override
+    public void onEvent(DomainEvent event, boolean endOfBatch) {
+        int index = event.getType().ordinal();
+        counts.lazySet(index, counts.get(index) + 1);
+    }
+
+    public long count(DomainEventType type) {
+        return counts.get(type.ordinal());
+    }
+}
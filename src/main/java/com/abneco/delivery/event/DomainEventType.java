@@ -0,0 +1,9 @@
+package com.abneco.delivery.event;
+
+public enum DomainEventType {
+    SELLER_REGISTERED,
+    SELLER_UPDATED,
+    SELLER_DELETED,
+    ADDRESS_CHANGED,
+    FEE_QUOTED
+}
@@ -0,0 +1,14 @@
+package com.abneco.delivery.exception;
+
+/**
+ * Base of the exceptions that end up as an error response. They carry no stack trace and cannot hold suppressed
+ * exceptions, so creating one costs about as much as any small object and a single instance can be thrown again and
+ * again, which lets frequent rejections be preallocated. They are thrown once and flow unchanged to
+ * {@link RestExceptionHandler}.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
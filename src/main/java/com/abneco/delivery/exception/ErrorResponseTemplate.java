@@ -0,0 +1,103 @@
+package com.abneco.delivery.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An error body with everything but the detail and the timestamp encoded up front. Rendering copies the fragments
+ * into one array sized exactly, the shape is the one the handler always returned:
+ * {@code {"title":..,"status":..,"detail":..,"timestamp":..,"message":<exception class>}}.
+ */
+final class ErrorResponseTemplate {
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] head;
+    private final byte[] middle;
+    private final byte[] tail;
+
+    ErrorResponseTemplate(String title, HttpStatus status, Class<? extends Throwable> type) {
+        this(title, status, type, new HttpHeaders());
+    }
+
+    ErrorResponseTemplate(String title, HttpStatus status, Class<? extends Throwable> type, HttpHeaders headers) {
+        this.status = status;
+        this.headers = new HttpHeaders();
+        this.headers.addAll(headers);
+        this.headers.setContentType(MediaType.APPLICATION_JSON);
+        this.head = ("{\"title\":" + quote(title) + ",\"status\":" + status.value() + ",\"detail\":")
+                .getBytes(StandardCharsets.UTF_8);
+        this.middle = ",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+        this.tail = ("\",\"message\":" + quote(type.getName()) + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    ResponseEntity<byte[]> render(String detail, byte[] timestamp) {
+        return new ResponseEntity<>(body(detail, timestamp), headers, status);
+    }
+
+    byte[] body(String detail, byte[] timestamp) {
+        byte[] encodedDetail = detail == null ? NULL : quote(detail).getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[head.length + encodedDetail.length + middle.length + timestamp.length + tail.length];
+        int position = copy(head, body, 0);
+        position = copy(encodedDetail, body, position);
+        position = copy(middle, body, position);
+        position = copy(timestamp, body, position);
+        copy(tail, body, position);
+        return body;
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    //most details need no escaping, those are only wrapped in quotes.
+    static String quote(String value) {
+        int first = 0;
+        while (first < value.length() && !needsEscape(value.charAt(first))) {
+            first++;
+        }
+        if (first == value.length()) {
+            return '"' + value + '"';
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 16).append('"').append(value, 0, first);
+        for (int index = first; index < value.length(); index++) {
+            char character = value.charAt(index);
+            switch (character) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (character < 0x20) {
+                        quoted.append("\\u00").append(HEX[character >> 4]).append(HEX[character & 0xf]);
+                    } else {
+                        quoted.append(character);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static boolean needsEscape(char character) {
+        return character < 0x20 || character == '"' || character == '\\';
+    }
+}
@@ -1,16 +1,12 @@
 package com.abneco.delivery.exception;
 
-import lombok.Getter;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-@Getter
-public class ResourceNotFoundException extends RuntimeException {
-    private final String message;
+public class ResourceNotFoundException extends DomainException {
 
     public ResourceNotFoundException(String message) {
-        this.message = message;
+        super(message);
     }
 }
-
@@ -1,40 +1,96 @@
 package com.abneco.delivery.exception;
 
+import com.abneco.delivery.utils.TimeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.util.StringJoiner;
 
+/**
+ * Error responses are written straight to bytes: the title, status and exception class of each kind of error are
+ * encoded once, only the detail and the timestamp, formatted once per second by {@link TimeService}, are added per
+ * response.
+ */
 @ControllerAdvice
 public class RestExceptionHandler {
 
+    private static final ErrorResponseTemplate REQUEST = new ErrorResponseTemplate(
+            "Request Exception", HttpStatus.BAD_REQUEST, RequestException.class);
+    private static final ErrorResponseTemplate NOT_FOUND = new ErrorResponseTemplate(
+            "Resource not found exception", HttpStatus.NOT_FOUND, ResourceNotFoundException.class);
+    private static final ErrorResponseTemplate UNAUTHORIZED = new ErrorResponseTemplate(
+            "Unauthorized exception", HttpStatus.UNAUTHORIZED, UnauthorizedException.class);
+    private static final ErrorResponseTemplate SERVICE_UNAVAILABLE = new ErrorResponseTemplate(
+            "Service unavailable exception", HttpStatus.SERVICE_UNAVAILABLE, ServiceUnavailableException.class,
+            retryAfter());
+    private static final ErrorResponseTemplate ARGUMENT_NOT_VALID = new ErrorResponseTemplate(
+            "Validation exception", HttpStatus.BAD_REQUEST, MethodArgumentNotValidException.class);
+    private static final ErrorResponseTemplate CONSTRAINT_VIOLATION = new ErrorResponseTemplate(
+            "Validation exception", HttpStatus.BAD_REQUEST, ConstraintViolationException.class);
+
+    private final TimeService timeService;
+
+    public RestExceptionHandler() {
+        this(new TimeService());
+    }
+
+    @Autowired
+    public RestExceptionHandler(TimeService timeService) {
+        this.timeService = timeService;
+    }
+
     @ExceptionHandler(RequestException.class)
-    public ResponseEntity<ExceptionResponseDetails> handleRequestException(RequestException e) {
-        ExceptionResponseDetails details = ExceptionResponseDetails.Builder
-                .newBuilder()
-                .title("Request Exception")
-                .status(HttpStatus.BAD_REQUEST.value())
-                .detail(e.getMessage())
-                .timestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
-                .message(e.getClass().getName())
-                .build();
-        return new ResponseEntity<>(details, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleRequestException(RequestException e) {
+        return REQUEST.render(e.getMessage(), timeService.formatNowUtf8());
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ExceptionResponseDetails> handleResourceNotFoundException(ResourceNotFoundException e) {
-        ExceptionResponseDetails details = ExceptionResponseDetails.Builder
-                .newBuilder()
-                .title("Resource not found exception")
-                .status(HttpStatus.NOT_FOUND.value())
-                .detail(e.getMessage())
-                .timestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
-                .message(e.getClass().getName())
-                .build();
-        return new ResponseEntity<>(details, HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleResourceNotFoundException(ResourceNotFoundException e) {
+        return NOT_FOUND.render(e.getMessage(), timeService.formatNowUtf8());
+    }
+
+    @ExceptionHandler(UnauthorizedException.class)
+    public ResponseEntity<byte[]> handleUnauthorizedException(UnauthorizedException e) {
+        return UNAUTHORIZED.render(e.getMessage(), timeService.formatNowUtf8());
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<byte[]> handleServiceUnavailableException(ServiceUnavailableException e) {
+        return SERVICE_UNAVAILABLE.render(e.getMessage(), timeService.formatNowUtf8());
+    }
+
+    //every rejected field is listed, so the client can fix the whole form in one go.
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<byte[]> handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+        StringJoiner detail = new StringJoiner("; ");
+        for (ObjectError error : e.getBindingResult().getAllErrors()) {
+            String name = error instanceof FieldError ? ((FieldError) error).getField() : error.getObjectName();
+            detail.add(name + ": " + error.getDefaultMessage());
+        }
+        return ARGUMENT_NOT_VALID.render(detail.toString(), timeService.formatNowUtf8());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<byte[]> handleConstraintViolationException(ConstraintViolationException e) {
+        StringJoiner detail = new StringJoiner("; ");
+        for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+            detail.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return CONSTRAINT_VIOLATION.render(detail.toString(), timeService.formatNowUtf8());
+    }
+
+    private static HttpHeaders retryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
 }
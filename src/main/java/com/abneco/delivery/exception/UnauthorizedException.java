@@ -0,0 +1,12 @@
+package com.abneco.delivery.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class UnauthorizedException extends DomainException {
+
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
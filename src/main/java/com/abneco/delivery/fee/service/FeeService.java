@@ -4,6 +4,8 @@ import com.abneco.delivery.fee.dto.EnumBrazilianRegions;
 import com.abneco.delivery.fee.dto.FeeResponse;
 import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.service.AddressService;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -23,19 +25,24 @@ public class FeeService {
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private DomainEventBus eventBus;
+
     public FeeResponse generateResponse(String cep) {
         try {
             if (cep != null) {
                 AddressTO address = addressService.getAddressTemplate(cep);
                 verifyRegion(address.getUf());
-                return new FeeResponse(address, getFeeByZone(address.getUf()));
+                FeeResponse response = new FeeResponse(address, getFeeByZone(address.getUf()));
+                eventBus.publish(DomainEventType.FEE_QUOTED, cep, address.getUf());
+                return response;
             }
             throw new RequestException("Cep is mandatory.");
         } catch (RequestException e) {
             log.error(e.getMessage());
-            throw new RequestException(e.getMessage());
+            throw e;
         } catch (Exception e) {
-            log.error(e.getMessage());
+            log.error("Could not calculate delivery fee for cep: " + cep, e);
             throw new RequestException("Could not calculate delivery fee for cep: " + cep);
         }
     }
@@ -0,0 +1,27 @@
+package com.abneco.delivery.outbox.controller;
+
+import com.abneco.delivery.outbox.dto.OutboxEventPage;
+import com.abneco.delivery.outbox.service.OutboxService;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxController {
+
+    @Autowired
+    private OutboxService service;
+
+    @GetMapping("/events")
+    @ResponseStatus(HttpStatus.OK)
+    public OutboxEventPage getEvents(@RequestParam(defaultValue = "0") long after,
+                                     @RequestParam(required = false) String aggregateType,
+                                     @RequestParam(defaultValue = "100") int limit) {
+        return service.findEvents(after, aggregateType, limit);
+    }
+}
@@ -0,0 +1,14 @@
+package com.abneco.delivery.outbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+//published in-process by the OutboxDispatcher, listen with @EventListener.
+@Getter
+@AllArgsConstructor
+public class OutboxEventBatch {
+
+    private final List<OutboxEventResponse> events;
+}
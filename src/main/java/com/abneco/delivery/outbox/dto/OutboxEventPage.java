@@ -0,0 +1,19 @@
+package com.abneco.delivery.outbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEventPage {
+
+    private List<OutboxEventResponse> events;
+    private long nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package com.abneco.delivery.outbox.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "OUTBOX_EVENT")
+@Table(indexes = @Index(name = "idx_outbox_event_created_at", columnList = "createdAt"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @Column(name = "aggregateType", nullable = false, length = 16)
+    private String aggregateType;
+
+    @Column(name = "aggregateId", nullable = false, length = 36)
+    private String aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "eventType", nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    @Column(name = "payload", columnDefinition = "JSON")
+    private String payload;
+
+    @Column(name = "createdAt", nullable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime createdAt;
+
+    @Column(name = "originNode", length = 64)
+    private String originNode;
+}
@@ -0,0 +1,18 @@
+package com.abneco.delivery.outbox.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OutboxEventType {
+
+    SELLER_REGISTERED("SELLER"),
+    SELLER_UPDATED("SELLER"),
+    SELLER_DELETED("SELLER"),
+    ADDRESS_REGISTERED("ADDRESS"),
+    ADDRESS_UPDATED("ADDRESS"),
+    ADDRESS_DELETED("ADDRESS");
+
+    private final String aggregateType;
+}
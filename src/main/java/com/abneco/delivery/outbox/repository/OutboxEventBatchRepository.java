@@ -0,0 +1,10 @@
+package com.abneco.delivery.outbox.repository;
+
+import com.abneco.delivery.outbox.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventBatchRepository {
+
+    void insertAll(List<OutboxEvent> events);
+}
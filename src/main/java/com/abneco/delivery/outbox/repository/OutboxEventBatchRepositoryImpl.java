@@ -0,0 +1,33 @@
+package com.abneco.delivery.outbox.repository;
+
+import com.abneco.delivery.outbox.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Hibernate never batches inserts of IDENTITY entities, since it reads each generated id back. The outbox does not
+ * need them back, so the rows go through one JDBC batch, which rewriteBatchedStatements turns into a multi-row insert.
+ * The ids stay auto-increment, in the order the rows are inserted, as the readers paging by id expect.
+ */
+public class OutboxEventBatchRepositoryImpl implements OutboxEventBatchRepository {
+
+    private static final String INSERT = "insert into outbox_event "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_at, origin_node) values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getAggregateType());
+            statement.setString(2, event.getAggregateId());
+            statement.setString(3, event.getEventType().name());
+            statement.setString(4, event.getPayload());
+            statement.setObject(5, event.getCreatedAt());
+            statement.setString(6, event.getOriginNode());
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.abneco.delivery.outbox.repository;
+
+import com.abneco.delivery.cache.OutboxInvalidationRow;
+import com.abneco.delivery.outbox.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBatchRepository {
+
+    @Query("select e from OUTBOX_EVENT as e where e.id > :after and e.createdAt < :until order by e.id")
+    List<OutboxEvent> findAfter(@Param("after") long after, @Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query("select e from OUTBOX_EVENT as e where e.id > :after and e.aggregateType = :aggregateType " +
+            "and e.createdAt < :until order by e.id")
+    List<OutboxEvent> findAfter(@Param("after") long after, @Param("aggregateType") String aggregateType,
+                                @Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query("select new com.abneco.delivery.cache.OutboxInvalidationRow(e.id, e.createdAt, e.aggregateType, " +
+            "e.aggregateId, e.eventType) from OUTBOX_EVENT as e " +
+            "where e.createdAt >= :since and (e.originNode is null or e.originNode <> :node) order by e.id")
+    List<OutboxInvalidationRow> findInvalidationsSince(@Param("since") LocalDateTime since, @Param("node") String node);
+
+    @Query("select coalesce(max(e.id), 0) from OUTBOX_EVENT as e")
+    long findLastId();
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from outbox_event where created_at < :before order by outbox_event_id limit :limit",
+            nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,34 @@
+package com.abneco.delivery.outbox.service;
+
+import com.abneco.delivery.utils.TimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class OutboxCleaner {
+
+    @Autowired
+    private OutboxService service;
+
+    @Autowired
+    private TimeService timeService;
+
+    @Value("${outbox.retention.days:7}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${outbox.retention.cron:0 0 * * * *}")
+    public void deleteExpiredEvents() {
+        try {
+            int deleted = service.deleteEventsOlderThan(timeService.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("Deleted " + deleted + " outbox events older than " + retentionDays + " days.");
+            }
+        } catch (Exception e) {
+            log.error("Could not delete expired outbox events. " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.abneco.delivery.outbox.service;
+
+import com.abneco.delivery.outbox.dto.OutboxEventBatch;
+import com.abneco.delivery.outbox.dto.OutboxEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    @Autowired
+    private OutboxService service;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Value("${outbox.dispatcher.batch-size:500}")
+    private int batchSize;
+
+    private long lastDispatchedId = -1;
+
+    //fixedDelay never overlaps runs, so lastDispatchedId is only touched by one thread at a time.
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.delay-ms:1000}")
+    public void dispatch() {
+        try {
+            if (lastDispatchedId < 0) {
+                //in-process listeners start with this node, events written before it are not theirs to replay.
+                lastDispatchedId = service.findLastEventId();
+                return;
+            }
+            List<OutboxEventResponse> events;
+            do {
+                events = service.findSettledEvents(lastDispatchedId, batchSize);
+                if (events.isEmpty()) {
+                    return;
+                }
+                publisher.publishEvent(new OutboxEventBatch(events));
+                lastDispatchedId = events.get(events.size() - 1).getId();
+            } while (events.size() == batchSize);
+        } catch (Exception e) {
+            //the cursor only moves after a batch is published, so a failed batch is retried on the next run.
+            log.error("Could not dispatch outbox events after id " + lastDispatchedId + ". " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.abneco.delivery.outbox.service;
+
+import com.abneco.delivery.config.NodeIdentity;
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.outbox.dto.OutboxEventPage;
+import com.abneco.delivery.outbox.dto.OutboxEventResponse;
+import com.abneco.delivery.outbox.entity.OutboxEvent;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.repository.OutboxEventRepository;
+import com.abneco.delivery.utils.TimeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private TimeService timeService;
+
+    public OutboxService(OutboxEventRepository repository, ObjectMapper objectMapper, NodeIdentity nodeIdentity) {
+        this(repository, objectMapper, nodeIdentity, new TimeService());
+    }
+
+    public static final int MAX_LIMIT = 1000;
+    public static final int DELETE_CHUNK_SIZE = 5000;
+    //ids are taken when the row is inserted, not when it commits, so a reader that went past an id could miss
+    //a slower transaction holding a smaller one. Events are only handed out once they are older than this.
+    public static final long SETTLE_SECONDS = 5;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, String aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent(null, type.getAggregateType(), aggregateId, type, toJson(payload),
+                timeService.now(), nodeIdentity.getId());
+        repository.save(event);
+    }
+
+    //one multi-row insert for the whole batch, in the order the aggregates were given.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void recordAll(OutboxEventType type, List<T> aggregates, Function<T, String> aggregateId,
+                              Function<T, ?> payload) {
+        LocalDateTime now = timeService.now();
+        List<OutboxEvent> events = new ArrayList<>(aggregates.size());
+        for (T aggregate : aggregates) {
+            events.add(new OutboxEvent(null, type.getAggregateType(), aggregateId.apply(aggregate), type,
+                    toJson(payload.apply(aggregate)), now, nodeIdentity.getId()));
+        }
+        if (!events.isEmpty()) {
+            repository.insertAll(events);
+        }
+    }
+
+    public OutboxEventPage findEvents(long after, String aggregateType, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RequestException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        String type = aggregateType == null ? null : aggregateType.toUpperCase(Locale.ROOT);
+        if (type != null && !type.equals("SELLER") && !type.equals("ADDRESS")) {
+            throw new RequestException("Aggregate type must be SELLER or ADDRESS.");
+        }
+        try {
+            LocalDateTime until = timeService.now().minusSeconds(SETTLE_SECONDS);
+            PageRequest page = PageRequest.of(0, limit + 1);
+            List<OutboxEvent> events = type == null
+                    ? repository.findAfter(after, until, page)
+                    : repository.findAfter(after, type, until, page);
+            boolean hasMore = events.size() > limit;
+            if (hasMore) {
+                events = events.subList(0, limit);
+            }
+            long nextCursor = events.isEmpty() ? after : events.get(events.size() - 1).getId();
+            return new OutboxEventPage(toResponse(events), nextCursor, hasMore);
+        } catch (Exception e) {
+            log.error("Could not find outbox events. " + e.getMessage());
+            throw new RequestException("Could not find outbox events.");
+        }
+    }
+
+    public List<OutboxEventResponse> findSettledEvents(long after, int limit) {
+        LocalDateTime until = timeService.now().minusSeconds(SETTLE_SECONDS);
+        return toResponse(repository.findAfter(after, until, PageRequest.of(0, limit)));
+    }
+
+    public long findLastEventId() {
+        return repository.findLastId();
+    }
+
+    public int deleteEventsOlderThan(LocalDateTime before) {
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = repository.deleteCreatedBefore(before, DELETE_CHUNK_SIZE);
+            deleted += chunk;
+        } while (chunk == DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize outbox event. " + e.getMessage());
+            throw new RequestException("Could not serialize outbox event.");
+        }
+    }
+
+    private static List<OutboxEventResponse> toResponse(List<OutboxEvent> events) {
+        List<OutboxEventResponse> response = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            response.add(new OutboxEventResponse(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType().name(), event.getPayload(), event.getCreatedAt()));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,17 @@
+package com.abneco.delivery.persistence;
+
+import com.abneco.delivery.utils.TimeOrderedUuid;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "com.abneco.delivery.persistence.TimeOrderedUuidGenerator";
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return TimeOrderedUuid.generate().toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.exception.UnauthorizedException;
+import com.abneco.delivery.user.repository.SellerRepository;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@Slf4j
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthService {
+
+    public static final String INVALID_CREDENTIALS_MESSAGE = "Invalid email or password.";
+    public static final String TOKEN_TYPE = "Bearer";
+
+    @Autowired
+    private SellerRepository repository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenService tokenService;
+
+    public TokenResponse login(LoginForm form) {
+        if (form.getEmail() == null || form.getPassword() == null) {
+            throw new UnauthorizedException(INVALID_CREDENTIALS_MESSAGE);
+        }
+        Optional<SellerCredentials> seller = repository.findCredentialsByEmail(form.getEmail());
+        if (seller.isEmpty()) {
+            //hashing costs as much as a wrong password, so response times do not reveal which emails exist.
+            passwordHasher.hash(form.getPassword());
+            log.error(INVALID_CREDENTIALS_MESSAGE);
+            throw new UnauthorizedException(INVALID_CREDENTIALS_MESSAGE);
+        }
+        if (!passwordHasher.matches(form.getPassword(), seller.get().getPassword())) {
+            log.error(INVALID_CREDENTIALS_MESSAGE);
+            throw new UnauthorizedException(INVALID_CREDENTIALS_MESSAGE);
+        }
+        String token = tokenService.issue(seller.get().getSellerId(), seller.get().getEmail());
+        return new TokenResponse(token, TOKEN_TYPE, tokenService.getTtlSeconds());
+    }
+}
@@ -0,0 +1,16 @@
+package com.abneco.delivery.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginForm {
+
+    private String email;
+    private String password;
+}
@@ -0,0 +1,175 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt runs on its own bounded pool instead of the request threads, so a burst of registrations or logins can use
+ * at most that pool's cpus. When the pool and its queue are full the caller gets a 503 right away instead of waiting,
+ * and a caller whose hash is not done within the timeout gets one too.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    public static final String SATURATED_MESSAGE = "Too many password operations right now, please try again.";
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+    public static final long DEFAULT_TIMEOUT_MS = 10_000;
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder encoder;
+    @Getter
+    private final int strength;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    private final long timeoutMillis;
+
+    public PasswordHasher() {
+        this(1, 1000, MIN_STRENGTH, 0, new SimpleMeterRegistry());
+    }
+
+    public PasswordHasher(int threads, int queueCapacity, int strength, long targetMillis,
+                          MeterRegistry meterRegistry) {
+        this(threads, queueCapacity, strength, targetMillis, DEFAULT_TIMEOUT_MS, meterRegistry);
+    }
+
+    @Autowired
+    public PasswordHasher(@Value("${password.hashing.threads:0}") int threads,
+                          @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${password.hashing.strength:0}") int strength,
+                          @Value("${password.hashing.target-ms:250}") long targetMillis,
+                          @Value("${password.hashing.timeout-ms:10000}") long timeoutMillis,
+                          MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.strength = strength > 0 ? strength : calibrate(targetMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.encoder = new BCryptPasswordEncoder(this.strength);
+        this.hashTimer = Timer.builder("password.hashing.duration").register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("password.hashing.strength", this, PasswordHasher::getStrength).register(meterRegistry);
+    }
+
+    public String hash(String password) {
+        return await(submit(() -> timedHash(password)));
+    }
+
+    //one task per password, with at most half the pool's threads worth of them queued or running at once, so a bulk
+    //registration leaves room for logins and its hashes take turns in the queue with theirs.
+    public List<String> hashAll(List<String> passwords) {
+        int window = Math.max(1, executor.getMaximumPoolSize() / 2);
+        List<Future<String>> futures = new ArrayList<>(passwords.size());
+        try {
+            for (int index = 0; index < passwords.size(); index++) {
+                if (index >= window) {
+                    await(futures.get(index - window));
+                }
+                String password = passwords.get(index);
+                futures.add(submit(() -> timedHash(password)));
+            }
+            List<String> hashes = new ArrayList<>(passwords.size());
+            for (Future<String> future : futures) {
+                hashes.add(await(future));
+            }
+            return hashes;
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    public boolean matches(String password, String hash) {
+        return await(submit(() -> encoder.matches(password, hash)));
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        //queued hashes are cancelled, so their callers stop waiting instead of hanging on a pool that is gone.
+        executor.shutdownNow().forEach(task -> ((Future<?>) task).cancel(true));
+    }
+
+    private String timedHash(String password) {
+        return hashTimer.record(() -> encoder.encode(password));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.error(SATURATED_MESSAGE);
+            throw new ServiceUnavailableException(SATURATED_MESSAGE);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.error("Password operation took longer than " + timeoutMillis + " ms.");
+            throw new ServiceUnavailableException(SATURATED_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE);
+        }
+    }
+
+    //each extra cost doubles the work, so one timed hash at the minimum cost tells how far it can go.
+    private static int calibrate(long targetMillis) {
+        if (targetMillis <= 0) {
+            return MIN_STRENGTH;
+        }
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double millis = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("BCrypt strength calibrated to " + strength + ", about " + Math.round(millis) + " ms per hash.");
+        return strength;
+    }
+}
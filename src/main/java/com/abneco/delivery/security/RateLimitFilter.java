@@ -0,0 +1,52 @@
+package com.abneco.delivery.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_KEY_PREFIX = "key:";
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(RateLimiter rateLimiter, String apiKeyHeader, Collection<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = apiKeys.stream()
+                .map(String::trim)
+                .filter(apiKey -> !apiKey.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    //behind a proxy the client address comes from server.forward-headers-strategy, not from headers read here.
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        //only configured keys get a bucket of their own, anything else would let a client pick a fresh one per request.
+        String address = request.getRemoteAddr();
+        String apiKey = request.getHeader(apiKeyHeader);
+        String client = apiKey != null && apiKeys.contains(apiKey) ? API_KEY_PREFIX + apiKey : address;
+        long wait = rateLimiter.acquire(request.getRequestURI().substring(request.getContextPath().length()), client,
+                address);
+        if (wait > 0) {
+            long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,172 @@
+package com.abneco.delivery.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, one set per route. A bucket is a single long, the time its next token becomes due
+ * (GCRA), updated with a compare-and-set, so a request costs a map lookup and one CAS without any lock.
+ * <p>
+ * Routes are path prefixes written as {@code prefix=rate:burst}, with the rate in requests per second; the longest
+ * matching prefix wins and anything else uses the default route. A bucket whose due time has passed is full, so
+ * dropping it loses nothing, which is how idle clients are evicted.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    public static final String DEFAULT_LIMIT = "50:100";
+    public static final long DEFAULT_MAX_BUCKETS = 100_000;
+
+    private final List<Route> routes = new ArrayList<>();
+    private final Route defaultRoute;
+    private final long maxBuckets;
+    private final LongSupplier clock;
+
+    public RateLimiter() {
+        this(DEFAULT_LIMIT, List.of(), DEFAULT_MAX_BUCKETS, new SimpleMeterRegistry(), System::nanoTime);
+    }
+
+    @Autowired
+    public RateLimiter(@Value("${rate-limit.default:50:100}") String defaultLimit,
+                       @Value("${rate-limit.routes:}") List<String> routeLimits,
+                       @Value("${rate-limit.max-buckets:100000}") long maxBuckets,
+                       MeterRegistry meterRegistry) {
+        this(defaultLimit, routeLimits, maxBuckets, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(String defaultLimit, List<String> routeLimits, long maxBuckets, MeterRegistry meterRegistry,
+                LongSupplier clock) {
+        this.defaultRoute = Route.parse("", defaultLimit, meterRegistry);
+        for (String routeLimit : routeLimits) {
+            if (routeLimit.isBlank()) {
+                continue;
+            }
+            int separator = routeLimit.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Rate limit route must be prefix=rate:burst, got " + routeLimit);
+            }
+            routes.add(Route.parse(routeLimit.substring(0, separator).trim(), routeLimit.substring(separator + 1),
+                    meterRegistry));
+        }
+        routes.sort(Comparator.comparingInt((Route route) -> route.prefix.length()).reversed());
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+    }
+
+    public long acquire(String path, String client) {
+        return acquire(path, client, client);
+    }
+
+    //returns 0 when the request may go on, otherwise how many nanoseconds until it would be allowed. address is the
+    //client's remote address, used in place of client once the route holds too many buckets.
+    public long acquire(String path, String client, String address) {
+        Route route = routeOf(path);
+        AtomicLong bucket = route.buckets.get(client);
+        if (bucket == null) {
+            bucket = newBucket(route, client, address);
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long due = bucket.get();
+            long next = Math.max(due, now) + route.interval;
+            long wait = next - now - route.tolerance;
+            if (wait > 0) {
+                route.rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(due, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.idle-eviction-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Route route : allRoutes()) {
+            int before = route.buckets.size();
+            route.buckets.values().removeIf(bucket -> bucket.get() <= now);
+            evicted += before - route.buckets.size();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted " + evicted + " idle rate limit buckets.");
+        }
+    }
+
+    public long bucketCount() {
+        long count = 0;
+        for (Route route : allRoutes()) {
+            count += route.buckets.mappingCount();
+        }
+        return count;
+    }
+
+    private Route routeOf(String path) {
+        for (Route route : routes) {
+            if (path.startsWith(route.prefix)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    //once a route holds too many clients, new ones are limited by their address until idle ones are evicted. A client
+    //cannot make up addresses the way it could keys, and sharing one bucket would let a single client block them all.
+    private AtomicLong newBucket(Route route, String client, String address) {
+        String key = route.buckets.mappingCount() < maxBuckets ? client : address;
+        AtomicLong bucket = new AtomicLong(Long.MIN_VALUE);
+        AtomicLong existing = route.buckets.putIfAbsent(key, bucket);
+        return existing != null ? existing : bucket;
+    }
+
+    private List<Route> allRoutes() {
+        List<Route> all = new ArrayList<>(routes);
+        all.add(defaultRoute);
+        return all;
+    }
+
+    private static final class Route {
+        private final String prefix;
+        private final long interval;
+        private final long tolerance;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final Counter rejected;
+
+        private Route(String prefix, double ratePerSecond, int burst, MeterRegistry meterRegistry) {
+            if (ratePerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limit for '" + prefix + "' needs a positive rate and burst.");
+            }
+            this.prefix = prefix;
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+            this.tolerance = interval * burst;
+            this.rejected = Counter.builder("rate.limit.rejected")
+                    .tag("route", prefix.isEmpty() ? "default" : prefix)
+                    .register(meterRegistry);
+        }
+
+        private static Route parse(String prefix, String limit, MeterRegistry meterRegistry) {
+            String[] parts = limit.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must be rate:burst, got " + limit);
+            }
+            return new Route(prefix, Double.parseDouble(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.abneco.delivery.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * AES-GCM for secrets that have to be stored for a short while, such as the password of a queued registration.
+ * A sealed value is base64 of the random 12 byte nonce followed by the ciphertext and its tag.
+ * <p>
+ * The key has to be the same on every node and across restarts, otherwise queued values could not be opened anymore.
+ * Without one the cipher is disabled and so are the features that depend on it.
+ */
+@Component
+@Slf4j
+public class SecretCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public SecretCipher(@Value("${registration.queue.key:}") String key) {
+        if (key.isBlank()) {
+            log.warn("registration.queue.key is not set, queued registrations are disabled.");
+            this.key = null;
+            return;
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(key.trim());
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalStateException("registration.queue.key must be a base64 AES key of 16, 24 or 32 bytes.");
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    public String seal(String plain) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("registration.queue.key is not set.");
+        }
+        try {
+            byte[] nonce = new byte[NONCE_BYTES];
+            random.nextBytes(nonce);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            byte[] sealed = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(NONCE_BYTES + sealed.length).put(nonce).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not seal secret.", e);
+        }
+    }
+
+    //returns null when the value was tampered with or sealed with another key.
+    public String open(String sealed) {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getDecoder().decode(sealed);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, NONCE_BYTES));
+            return new String(cipher.doFinal(bytes, NONCE_BYTES, bytes.length - NONCE_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.abneco.delivery.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SellerCredentials {
+
+    private final String sellerId;
+    private final String email;
+    private final String password;
+}
@@ -0,0 +1,15 @@
+package com.abneco.delivery.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+
+    private String token;
+    private String type;
+    private long expiresIn;
+}
@@ -0,0 +1,116 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.utils.TimeService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and verifies the bearer tokens given on login. A token is {@code payload.signature}, both base64url: the
+ * payload is {@code expiresAt|issuedAt|sellerId|email} and the signature its HMAC-SHA256, so verifying one needs
+ * neither the database nor BCrypt. issuedAt, in epoch millis, is the credential version the
+ * {@link UserDetailsCache} revocations are compared with.
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    @Getter
+    private final long ttlSeconds;
+    //Mac instances are not thread safe and costly to create, each request thread keeps its own.
+    private final ThreadLocal<Mac> macs;
+    private final TimeService timeService;
+
+    public TokenService(String secret, long ttlMinutes) {
+        this(secret, ttlMinutes, new TimeService());
+    }
+
+    @Autowired
+    public TokenService(@Value("${auth.token.secret:}") String secret,
+                        @Value("${auth.token.ttl-minutes:60}") long ttlMinutes,
+                        TimeService timeService) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isBlank()) {
+            log.warn("auth.token.secret is not set, tokens will only be valid on this node until it restarts.");
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.ttlSeconds = TimeUnit.MINUTES.toSeconds(ttlMinutes);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.timeService = timeService;
+    }
+
+    public String issue(String sellerId, String email) {
+        long issuedAt = timeService.epochMillis();
+        long expiresAt = issuedAt / 1000 + ttlSeconds;
+        byte[] payload = (expiresAt + "|" + issuedAt + "|" + sellerId + "|" + email).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    //returns null for anything that is not a valid, unexpired token issued with this secret.
+    public Claims verify(String token) {
+        int separator = token == null ? -1 : token.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split("\\|", 4);
+            if (fields.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(fields[0]);
+            if (expiresAt <= timeService.epochSecond()) {
+                return null;
+            }
+            return new Claims(fields[2], fields[3], expiresAt, Long.parseLong(fields[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not create " + ALGORITHM + ".", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Claims {
+        private final String sellerId;
+        private final String email;
+        private final long expiresAt;
+        private final long issuedAt;
+    }
+}
@@ -0,0 +1,180 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.cache.CacheInvalidation;
+import com.abneco.delivery.cache.InvalidationTarget;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.utils.TimeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserDetails by email, so authenticating does not query the seller every time. Entries are also indexed by seller
+ * id, which is all an update or a delete knows about once the email may have changed.
+ * <p>
+ * Evicting a seller also revokes the tokens issued to it until then. Revocations are kept in memory for as long as
+ * a token lives, so checking one needs no database, and each node records the evictions it sees.
+ */
+@Component
+public class UserDetailsCache implements InvalidationTarget {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final long DEFAULT_TOKEN_TTL_MINUTES = 60;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, String> emailBySeller = new ConcurrentHashMap<>();
+    //seller id -> epoch millis of its last eviction.
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long tokenTtlMillis;
+    private final TimeService timeService;
+
+    public UserDetailsCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS);
+    }
+
+    public UserDetailsCache(int maxEntries, long ttlSeconds) {
+        this(maxEntries, ttlSeconds, DEFAULT_TOKEN_TTL_MINUTES, new TimeService());
+    }
+
+    @Autowired
+    public UserDetailsCache(@Value("${auth.user-details-cache.max-entries:10000}") int maxEntries,
+                            @Value("${auth.user-details-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${auth.token.ttl-minutes:60}") long tokenTtlMinutes,
+                            TimeService timeService) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.tokenTtlMillis = TimeUnit.MINUTES.toMillis(tokenTtlMinutes);
+        this.timeService = timeService;
+    }
+
+    public UserDetails get(String email) {
+        Entry entry = byEmail.get(email);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < timeService.epochMillis()) {
+            if (byEmail.remove(email, entry)) {
+                emailBySeller.remove(entry.sellerId, email);
+            }
+            return null;
+        }
+        return entry.details;
+    }
+
+    //read before loading from the database, put then refuses a load that raced with an eviction.
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String sellerId, UserDetails details, long loadedAtGeneration) {
+        if (byEmail.size() >= maxEntries) {
+            evictSome();
+        }
+        String previousEmail = emailBySeller.put(sellerId, details.getUsername());
+        if (previousEmail != null && !previousEmail.equals(details.getUsername())) {
+            byEmail.remove(previousEmail);
+        }
+        byEmail.put(details.getUsername(), new Entry(sellerId, details, timeService.epochMillis() + ttlMillis));
+        //an eviction of any seller moved the generation, so only the entry is dropped and no token is revoked.
+        if (generation.get() != loadedAtGeneration) {
+            remove(sellerId);
+        }
+    }
+
+    public void evictSeller(String sellerId) {
+        long now = timeService.epochMillis();
+        if (revokedAt.size() >= maxEntries) {
+            //every token issued before then has expired.
+            revokedAt.values().removeIf(evictedAt -> evictedAt < now - tokenTtlMillis);
+        }
+        revokedAt.merge(sellerId, now, Math::max);
+        generation.incrementAndGet();
+        remove(sellerId);
+    }
+
+    public boolean isRevoked(String sellerId, long issuedAt) {
+        Long evictedAt = revokedAt.get(sellerId);
+        return evictedAt != null && issuedAt <= evictedAt;
+    }
+
+    //evicting before the commit would let a concurrent login cache the row that is about to change.
+    public void evictSellerAfterCommit(String sellerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictSeller(sellerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictSeller(sellerId);
+            }
+        });
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    @Override
+    public void invalidate(List<CacheInvalidation> invalidations) {
+        for (CacheInvalidation invalidation : invalidations) {
+            //a seller registered elsewhere has neither cached details nor tokens to revoke yet.
+            if ("SELLER".equals(invalidation.getAggregateType())
+                    && invalidation.getEventType() != OutboxEventType.SELLER_REGISTERED) {
+                evictSeller(invalidation.getAggregateId());
+            }
+        }
+    }
+
+    private void remove(String sellerId) {
+        String email = emailBySeller.remove(sellerId);
+        if (email != null) {
+            byEmail.remove(email);
+        }
+    }
+
+    //drops expired entries first and, when that is not enough, an arbitrary tenth of the cache.
+    private void evictSome() {
+        long now = timeService.epochMillis();
+        byEmail.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt < now;
+            if (expired) {
+                emailBySeller.remove(entry.getValue().sellerId, entry.getKey());
+            }
+            return expired;
+        });
+        int excess = byEmail.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Entry> entries = byEmail.values().iterator();
+        while (excess-- > 0 && entries.hasNext()) {
+            Entry entry = entries.next();
+            entries.remove();
+            emailBySeller.remove(entry.sellerId, entry.details.getUsername());
+        }
+    }
+
+    private static final class Entry {
+        private final String sellerId;
+        private final UserDetails details;
+        private final long expiresAt;
+
+        private Entry(String sellerId, UserDetails details, long expiresAt) {
+            this.sellerId = sellerId;
+            this.details = details;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
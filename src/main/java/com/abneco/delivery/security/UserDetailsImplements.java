@@ -20,6 +20,11 @@ public class UserDetailsImplements implements UserDetails {
         this.password = user.getPassword();
     }
 
+    public UserDetailsImplements(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorizations;
@@ -1,6 +1,5 @@
 package com.abneco.delivery.security;
 
-import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.repository.SellerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,13 +15,23 @@ public class UserDetailsServiceImplements implements UserDetailsService {
     @Autowired
     private SellerRepository repository;
 
+    @Autowired
+    private UserDetailsCache cache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        Optional<Seller> optionalSeller = repository.findByEmail(username);
+        UserDetails cached = cache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        Optional<SellerCredentials> credentials = repository.findCredentialsByEmail(username);
 
-        if (optionalSeller.isPresent()) {
-            return new UserDetailsImplements(optionalSeller.get());
+        if (credentials.isPresent()) {
+            UserDetails details = new UserDetailsImplements(credentials.get().getEmail(), credentials.get().getPassword());
+            cache.put(credentials.get().getSellerId(), details, generation);
+            return details;
         } else {
             throw new UsernameNotFoundException("No such user " + username);
         }
@@ -1,5 +1,7 @@
 package com.abneco.delivery.user.controller;
 
+import com.abneco.delivery.user.json.BulkSellerResponse;
+import com.abneco.delivery.user.json.SellerChangesResponse;
 import com.abneco.delivery.user.json.SellerForm;
 import com.abneco.delivery.user.json.SellerResponse;
 import com.abneco.delivery.user.json.SellerUpdateForm;
@@ -28,12 +30,25 @@ public class SellerController {
         service.registerSeller(form);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkSellerResponse registerSellers(@RequestBody List<SellerForm> forms) {
+        return service.registerSellers(forms);
+    }
+
     @PutMapping("")
     @ResponseStatus(HttpStatus.OK)
     public SellerResponse updateSeller(@RequestBody SellerUpdateForm form) {
         return service.updateSeller(form);
     }
 
+    @GetMapping("/changes")
+    @ResponseStatus(HttpStatus.OK)
+    public SellerChangesResponse getSellerChanges(@RequestParam(required = false) String since,
+                                                  @RequestParam(defaultValue = "100") int limit) {
+        return service.findSellerChanges(since, limit);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public SellerResponse getSellerById(@PathVariable String id) {
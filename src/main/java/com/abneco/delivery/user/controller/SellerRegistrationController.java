@@ -0,0 +1,39 @@
+package com.abneco.delivery.user.controller;
+
+import com.abneco.delivery.user.json.RegistrationTicketResponse;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.user.service.SellerRegistrationService;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/seller/registrations")
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellerRegistrationController {
+
+    @Autowired
+    private SellerRegistrationService service;
+
+    @PostMapping("")
+    public ResponseEntity<RegistrationTicketResponse> registerSeller(@RequestBody SellerForm form) {
+        RegistrationTicketResponse ticket = service.enqueue(form);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{ticketId}")
+                        .buildAndExpand(ticket.getTicketId())
+                        .toUri())
+                .body(ticket);
+    }
+
+    @GetMapping("/{ticketId}")
+    @ResponseStatus(HttpStatus.OK)
+    public RegistrationTicketResponse getRegistration(@PathVariable String ticketId) {
+        return service.findTicket(ticketId);
+    }
+}
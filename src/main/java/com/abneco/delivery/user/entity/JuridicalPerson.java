@@ -15,7 +15,7 @@ import javax.persistence.MappedSuperclass;
 @MappedSuperclass
 public class JuridicalPerson extends User {
 
-    @Column(name = "cnpj", unique = true)
+    @Column(name = "cnpj")
     private String cnpj;
 
     public JuridicalPerson(String email, String cnpj, String name, String password, Long phoneNumber, boolean emailVerified) {
@@ -0,0 +1,9 @@
+package com.abneco.delivery.user.entity;
+
+public enum RegistrationStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,61 @@
+package com.abneco.delivery.user.entity;
+
+import com.abneco.delivery.persistence.BinaryUuidType;
+import com.abneco.delivery.persistence.TimeOrderedUuidGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "REGISTRATION_TICKET")
+@Table(indexes = @Index(name = "idx_registration_ticket_status", columnList = "status, createdAt"))
+public class RegistrationTicket {
+
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = TimeOrderedUuidGenerator.NAME)
+    @Type(type = BinaryUuidType.NAME)
+    @Column(name = "registration_ticket_id", columnDefinition = "BINARY(16)")
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private RegistrationStatus status;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "phoneNumber")
+    private Long phoneNumber;
+
+    @Column(name = "cnpj", length = 14)
+    private String cnpj;
+
+    //AES-GCM sealed, and cleared once the ticket is done with.
+    @Column(name = "sealedPassword", length = 512)
+    private String sealedPassword;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "createdAt", nullable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updatedAt", nullable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
+}
@@ -1,41 +1,42 @@
 package com.abneco.delivery.user.entity;
 
-import com.abneco.delivery.address.entity.Address;
+import com.abneco.delivery.persistence.BinaryUuidType;
+import com.abneco.delivery.persistence.TimeOrderedUuidGenerator;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity(name = "SELLER")
+@Table(indexes = @Index(name = "idx_seller_updated_at", columnList = "updatedAt, seller_id"),
+        uniqueConstraints = {@UniqueConstraint(name = Seller.EMAIL_UNIQUE_KEY, columnNames = "email"),
+                @UniqueConstraint(name = Seller.CNPJ_UNIQUE_KEY, columnNames = "cnpj")})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "seller")
+@DynamicUpdate
 @Getter
 @Setter
 public class Seller extends JuridicalPerson {
 
+    public static final String EMAIL_UNIQUE_KEY = "uk_seller_email";
+    public static final String CNPJ_UNIQUE_KEY = "uk_seller_cnpj";
+
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
-    @Column(name = "seller_id")
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = TimeOrderedUuidGenerator.NAME)
+    @Type(type = BinaryUuidType.NAME)
+    @Column(name = "seller_id", columnDefinition = "BINARY(16)")
     private String id;
 
-    @OneToOne(mappedBy = "seller", cascade = CascadeType.ALL)
-    private Address address;
-
-    public Seller(String id, JuridicalPerson user, String createdAt, String updatedAt) {
-        this.id = id;
-        this.setEmail(user.getEmail());
-        this.setCnpj(user.getCnpj());
-        this.setName(user.getName());
-        this.setPassword(user.getPassword());
-        this.setPhoneNumber(user.getPhoneNumber());
-        this.setEmailVerified(user.getEmailVerified());
-        this.setCreatedAt(createdAt);
-        this.setUpdatedAt(updatedAt);
-    }
-
-    public Seller(String id, JuridicalPerson user, String createdAt, String updatedAt, Address address) {
+    public Seller(String id, JuridicalPerson user, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.setEmail(user.getEmail());
         this.setCnpj(user.getCnpj());
@@ -45,10 +46,9 @@ public class Seller extends JuridicalPerson {
         this.setEmailVerified(user.getEmailVerified());
         this.setCreatedAt(createdAt);
         this.setUpdatedAt(updatedAt);
-        this.address = address;
     }
 
-    public Seller(JuridicalPerson user, String createdAt, String updatedAt) {
+    public Seller(JuridicalPerson user, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.setEmail(user.getEmail());
         this.setCnpj(user.getCnpj());
         this.setName(user.getName());
@@ -0,0 +1,32 @@
+package com.abneco.delivery.user.entity;
+
+import com.abneco.delivery.persistence.BinaryUuidType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Left behind when a seller is deleted, so the changes feed can tell its readers the seller is gone.
+ * Keyed by the id the seller had, which is never reused.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "SELLER_TOMBSTONE")
+@Table(indexes = @Index(name = "idx_seller_tombstone_deleted_at", columnList = "deletedAt, seller_id"))
+public class SellerTombstone {
+
+    @Id
+    @Type(type = BinaryUuidType.NAME)
+    @Column(name = "seller_id", columnDefinition = "BINARY(16)")
+    private String id;
+
+    @Column(name = "deletedAt", columnDefinition = "TIMESTAMP(6)", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -18,7 +19,7 @@ public abstract class User {
     @Column(name = "name")
     private String name;
 
-    @Column(name = "email", unique = true)
+    @Column(name = "email")
     private String email;
 
     @Column(name = "password")
@@ -30,9 +31,9 @@ public abstract class User {
     @Column(name = "emailVerified")
     private Boolean emailVerified;
 
-    @Column(name = "createdAt")
-    private String createdAt;
+    @Column(name = "createdAt", columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime createdAt;
 
-    @Column(name = "updatedAt")
-    private String updatedAt;
+    @Column(name = "updatedAt", columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
 }
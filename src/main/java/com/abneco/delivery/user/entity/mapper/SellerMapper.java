@@ -2,11 +2,12 @@ package com.abneco.delivery.user.entity.mapper;
 
 import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.json.SellerForm;
-import com.abneco.delivery.utils.DateFormatter;
+
+import java.time.LocalDateTime;
 
 public class SellerMapper {
 
-    public static Seller fromFormToSellerEntity(SellerForm form) {
+    public static Seller fromFormToSellerEntity(SellerForm form, LocalDateTime now) {
         Seller seller = new Seller();
 
         seller.setName(form.getName());
@@ -15,8 +16,8 @@ public class SellerMapper {
         seller.setPhoneNumber(form.getPhoneNumber());
         seller.setCnpj(form.getCnpj());
         seller.setEmailVerified(false);
-        seller.setUpdatedAt(DateFormatter.formatNow());
-        seller.setCreatedAt(DateFormatter.formatNow());
+        seller.setUpdatedAt(now);
+        seller.setCreatedAt(now);
 
         return seller;
     }
@@ -0,0 +1,17 @@
+package com.abneco.delivery.user.json;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkSellerRejection {
+
+    private int index;
+    private String email;
+    private String reason;
+}
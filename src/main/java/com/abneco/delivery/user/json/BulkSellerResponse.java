@@ -0,0 +1,18 @@
+package com.abneco.delivery.user.json;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkSellerResponse {
+
+    private int registered;
+    private List<BulkSellerRejection> rejected;
+}
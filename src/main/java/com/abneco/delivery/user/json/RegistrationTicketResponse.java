@@ -0,0 +1,22 @@
+package com.abneco.delivery.user.json;
+
+import com.abneco.delivery.user.entity.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationTicketResponse {
+
+    private String ticketId;
+    private RegistrationStatus status;
+    private String reason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
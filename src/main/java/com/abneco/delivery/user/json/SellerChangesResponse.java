@@ -0,0 +1,21 @@
+package com.abneco.delivery.user.json;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellerChangesResponse {
+
+    private List<SellerResponse> sellers;
+    //ids of the sellers deleted within the same page, ids are never reused.
+    private List<String> deleted;
+    private String nextCursor;
+    private boolean hasMore;
+}
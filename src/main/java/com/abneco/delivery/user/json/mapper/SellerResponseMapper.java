@@ -2,6 +2,7 @@ package com.abneco.delivery.user.json.mapper;
 
 import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.json.SellerResponse;
+import com.abneco.delivery.utils.DateFormatter;
 import lombok.Getter;
 
 @Getter
@@ -14,8 +15,8 @@ public class SellerResponseMapper {
                 .email(seller.getEmail())
                 .phoneNumber(seller.getPhoneNumber())
                 .cnpj(seller.getCnpj())
-                .createdAt(seller.getCreatedAt())
-                .updatedAt(seller.getUpdatedAt()).build();
+                .createdAt(DateFormatter.format(seller.getCreatedAt()))
+                .updatedAt(DateFormatter.format(seller.getUpdatedAt())).build();
     }
 
     private SellerResponseMapper() {
@@ -0,0 +1,29 @@
+package com.abneco.delivery.user.repository;
+
+import com.abneco.delivery.user.entity.RegistrationStatus;
+import com.abneco.delivery.user.entity.RegistrationTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RegistrationTicketRepository extends JpaRepository<RegistrationTicket, String> {
+
+    //several workers can claim batches at once, each one skips the rows another has locked.
+    @Query(value = "select * from registration_ticket where status = 'PENDING' order by created_at limit :limit "
+            + "for update skip locked", nativeQuery = true)
+    List<RegistrationTicket> lockPending(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("update REGISTRATION_TICKET as t set t.status=:pending, t.updatedAt=:now "
+            + "where t.status=:processing and t.updatedAt < :before")
+    int requeueStale(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                     @Param("pending") RegistrationStatus pending, @Param("processing") RegistrationStatus processing);
+}
@@ -1,19 +1,57 @@
 package com.abneco.delivery.user.repository;
 
+import com.abneco.delivery.security.SellerCredentials;
 import com.abneco.delivery.user.entity.Seller;
+import com.abneco.delivery.user.uniqueness.SellerKeys;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SellerRepository extends JpaRepository<Seller, String> {
 
     @Query("select s from SELLER as s where email=:email")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "seller-by-key")})
     Optional<Seller> findByEmail(@Param("email") String email);
 
+    @Query("select new com.abneco.delivery.security.SellerCredentials(s.id, s.email, s.password) "
+            + "from SELLER as s where s.email=:email")
+    Optional<SellerCredentials> findCredentialsByEmail(@Param("email") String email);
+
     @Query("select s from SELLER as s where cnpj=:cnpj")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "seller-by-key")})
     Optional<Seller> findByCnpj(@Param("cnpj") String cnpj);
+
+    @Query("select s.email from SELLER as s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select s.cnpj from SELLER as s where s.cnpj in :cnpjs")
+    List<String> findExistingCnpjs(@Param("cnpjs") Collection<String> cnpjs);
+
+    //MySQL Connector/J only streams rows when the fetch size is Integer.MIN_VALUE.
+    @Query("select new com.abneco.delivery.user.uniqueness.SellerKeys(s.email, s.cnpj) from SELLER as s")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    Stream<SellerKeys> streamKeys();
+
+    @Query("select new com.abneco.delivery.user.uniqueness.SellerKeys(s.email, s.cnpj) from SELLER as s "
+            + "where s.id in :ids")
+    List<SellerKeys> findKeysByIds(@Param("ids") Collection<String> ids);
+
+    @Query("select s from SELLER as s where (s.updatedAt > :updatedAt or (s.updatedAt = :updatedAt and s.id > :id)) " +
+            "and s.updatedAt < :until order by s.updatedAt, s.id")
+    List<Seller> findChangedSince(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") String id,
+                                  @Param("until") LocalDateTime until, Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package com.abneco.delivery.user.repository;
+
+import com.abneco.delivery.user.entity.SellerTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SellerTombstoneRepository extends JpaRepository<SellerTombstone, String> {
+
+    @Query("select t from SELLER_TOMBSTONE as t where (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt " +
+            "and t.id > :id)) and t.deletedAt < :until order by t.deletedAt, t.id")
+    List<SellerTombstone> findDeletedSince(@Param("deletedAt") LocalDateTime deletedAt, @Param("id") String id,
+                                           @Param("until") LocalDateTime until, Pageable pageable);
+}
@@ -0,0 +1,203 @@
+package com.abneco.delivery.user.service;
+
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import com.abneco.delivery.security.SecretCipher;
+import com.abneco.delivery.user.entity.RegistrationStatus;
+import com.abneco.delivery.user.entity.RegistrationTicket;
+import com.abneco.delivery.user.json.BulkSellerRejection;
+import com.abneco.delivery.user.json.RegistrationTicketResponse;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.user.repository.RegistrationTicketRepository;
+import com.abneco.delivery.utils.TimeService;
+import com.abneco.delivery.utils.ValidateSeller;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Registrations accepted with 202: the request is only validated and stored as a PENDING ticket, the uniqueness
+ * checks, the BCrypt hashes and the inserts happen later, in batches, through {@link SellerService#registerSellers}.
+ * The password waits in the ticket sealed by {@link SecretCipher} and is cleared once the ticket is done. Without a
+ * configured key the queue is disabled and enqueuing answers 503.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellerRegistrationService {
+
+    public static final String TICKET_NOT_FOUND = "Registration ticket not found.";
+    public static final String QUEUE_DISABLED = "Queued registrations are disabled, please use /seller instead.";
+
+    @Autowired
+    private RegistrationTicketRepository repository;
+
+    @Autowired
+    private SellerService sellerService;
+
+    @Autowired
+    private SecretCipher secretCipher;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private TimeService timeService;
+
+    @Value("${registration.max-attempts:5}")
+    private int maxAttempts;
+
+    public boolean isEnabled() {
+        return secretCipher.isEnabled();
+    }
+
+    public RegistrationTicketResponse enqueue(SellerForm form) {
+        try {
+            if (!isEnabled()) {
+                throw new ServiceUnavailableException(QUEUE_DISABLED);
+            }
+            if (form == null) {
+                throw new RequestException("Seller must not be null.");
+            }
+            ValidateSeller.validateSeller(form);
+            LocalDateTime now = timeService.now();
+            RegistrationTicket ticket = new RegistrationTicket();
+            ticket.setStatus(RegistrationStatus.PENDING);
+            ticket.setName(form.getName());
+            ticket.setEmail(form.getEmail().toLowerCase(Locale.ROOT));
+            ticket.setPhoneNumber(form.getPhoneNumber());
+            ticket.setCnpj(form.getCnpj());
+            ticket.setSealedPassword(secretCipher.seal(form.getPassword()));
+            ticket.setCreatedAt(now);
+            ticket.setUpdatedAt(now);
+            return toResponse(repository.save(ticket));
+        } catch (RequestException | ServiceUnavailableException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Could not register seller.", e);
+            throw new RequestException("Could not register seller.");
+        }
+    }
+
+    public RegistrationTicketResponse findTicket(String ticketId) {
+        try {
+            return repository.findById(ticketId)
+                    .map(SellerRegistrationService::toResponse)
+                    .orElseThrow(() -> new ResourceNotFoundException(TICKET_NOT_FOUND));
+        } catch (ResourceNotFoundException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Could not find registration ticket.", e);
+            throw new RequestException("Could not find registration ticket.");
+        }
+    }
+
+    //returns how many tickets were claimed, so the worker knows whether to keep draining.
+    public int processPending(int batchSize) {
+        List<RegistrationTicket> tickets = transactionOperations.execute(status -> {
+            List<RegistrationTicket> locked = repository.lockPending(batchSize);
+            LocalDateTime now = timeService.now();
+            for (RegistrationTicket ticket : locked) {
+                ticket.setStatus(RegistrationStatus.PROCESSING);
+                ticket.setAttempts(ticket.getAttempts() + 1);
+                ticket.setUpdatedAt(now);
+            }
+            return repository.saveAll(locked);
+        });
+        if (tickets == null || tickets.isEmpty()) {
+            return 0;
+        }
+
+        List<RegistrationTicket> unsaved = new ArrayList<>(tickets.size());
+        List<RegistrationTicket> submitted = new ArrayList<>(tickets.size());
+        List<SellerForm> forms = new ArrayList<>(tickets.size());
+        for (RegistrationTicket ticket : tickets) {
+            String password = secretCipher.open(ticket.getSealedPassword());
+            if (password == null) {
+                finish(ticket, RegistrationStatus.FAILED, "Could not read the queued password, please register again.");
+                unsaved.add(ticket);
+                continue;
+            }
+            submitted.add(ticket);
+            forms.add(new SellerForm(ticket.getName(), ticket.getEmail(), password, ticket.getPhoneNumber(),
+                    ticket.getCnpj()));
+        }
+
+        if (!forms.isEmpty()) {
+            List<String> sealedPasswords = new ArrayList<>(submitted.size());
+            submitted.forEach(ticket -> sealedPasswords.add(ticket.getSealedPassword()));
+            try {
+                //the tickets are finished in the transaction of the inserts, a ticket left PROCESSING never has its
+                //seller committed, so requeueing it cannot reject it as already in use.
+                sellerService.registerSellers(forms, response -> {
+                    String[] reasons = new String[submitted.size()];
+                    for (BulkSellerRejection rejection : response.getRejected()) {
+                        reasons[rejection.getIndex()] = rejection.getReason();
+                    }
+                    for (int index = 0; index < submitted.size(); index++) {
+                        if (reasons[index] == null) {
+                            finish(submitted.get(index), RegistrationStatus.COMPLETED, null);
+                        } else {
+                            finish(submitted.get(index), RegistrationStatus.REJECTED, reasons[index]);
+                        }
+                    }
+                    repository.saveAll(submitted);
+                });
+            } catch (Exception e) {
+                //nothing of the batch was inserted, the tickets go back to the queue until they run out of attempts.
+                log.error("Could not process " + submitted.size() + " registration tickets.", e);
+                for (int index = 0; index < submitted.size(); index++) {
+                    RegistrationTicket ticket = submitted.get(index);
+                    if (ticket.getAttempts() >= maxAttempts) {
+                        finish(ticket, RegistrationStatus.FAILED, "Could not register seller.");
+                    } else {
+                        ticket.setStatus(RegistrationStatus.PENDING);
+                        ticket.setReason(null);
+                        ticket.setSealedPassword(sealedPasswords.get(index));
+                        ticket.setUpdatedAt(timeService.now());
+                    }
+                }
+                unsaved.addAll(submitted);
+            }
+        }
+        if (!unsaved.isEmpty()) {
+            transactionOperations.executeWithoutResult(status -> repository.saveAll(unsaved));
+        }
+        return tickets.size();
+    }
+
+    //tickets left PROCESSING by a node that died mid-batch.
+    public int requeueStale(LocalDateTime before) {
+        int requeued = repository.requeueStale(before, timeService.now(), RegistrationStatus.PENDING,
+                RegistrationStatus.PROCESSING);
+        if (requeued > 0) {
+            log.warn("Requeued " + requeued + " stale registration tickets.");
+        }
+        return requeued;
+    }
+
+    private void finish(RegistrationTicket ticket, RegistrationStatus status, String reason) {
+        ticket.setStatus(status);
+        ticket.setReason(reason);
+        ticket.setSealedPassword(null);
+        ticket.setUpdatedAt(timeService.now());
+    }
+
+    private static RegistrationTicketResponse toResponse(RegistrationTicket ticket) {
+        return new RegistrationTicketResponse(ticket.getId(), ticket.getStatus(), ticket.getReason(),
+                ticket.getCreatedAt(), ticket.getUpdatedAt());
+    }
+}
@@ -0,0 +1,45 @@
+package com.abneco.delivery.user.service;
+
+import com.abneco.delivery.utils.TimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "registration.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class SellerRegistrationWorker {
+
+    @Autowired
+    private SellerRegistrationService service;
+
+    @Autowired
+    private TimeService timeService;
+
+    @Value("${registration.worker.batch-size:100}")
+    private int batchSize;
+
+    @Value("${registration.worker.stale-minutes:5}")
+    private long staleMinutes;
+
+    //every node can run it, SKIP LOCKED hands each one a different batch. One batch per run, a long queue is drained
+    //run after run instead of holding a scheduler thread for all of it.
+    @Scheduled(fixedDelayString = "${registration.worker.delay-ms:1000}")
+    public void process() {
+        if (!service.isEnabled()) {
+            return;
+        }
+        try {
+            service.requeueStale(timeService.now().minusMinutes(staleMinutes));
+            if (service.processPending(batchSize) == batchSize) {
+                log.info("Registration queue still has tickets, the next run processes the next batch.");
+            }
+        } catch (Exception e) {
+            log.error("Could not process registration tickets.", e);
+        }
+    }
+}
@@ -1,27 +1,63 @@
 package com.abneco.delivery.user.service;
 
+import com.abneco.delivery.address.autocomplete.AddressAutocompleteIndex;
+import com.abneco.delivery.address.entity.Address;
+import com.abneco.delivery.address.repository.AddressRepository;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.service.OutboxService;
+import com.abneco.delivery.security.PasswordHasher;
+import com.abneco.delivery.security.UserDetailsCache;
 import com.abneco.delivery.user.entity.Seller;
+import com.abneco.delivery.user.entity.SellerTombstone;
 import com.abneco.delivery.user.entity.mapper.SellerMapper;
+import com.abneco.delivery.user.json.BulkSellerRejection;
+import com.abneco.delivery.user.json.BulkSellerResponse;
+import com.abneco.delivery.user.json.SellerChangesResponse;
 import com.abneco.delivery.user.json.SellerForm;
 import com.abneco.delivery.user.json.SellerResponse;
 import com.abneco.delivery.user.json.SellerUpdateForm;
 import com.abneco.delivery.user.json.mapper.SellerResponseMapper;
 import com.abneco.delivery.user.repository.SellerRepository;
-import com.abneco.delivery.utils.DateFormatter;
+import com.abneco.delivery.user.repository.SellerTombstoneRepository;
+import com.abneco.delivery.user.uniqueness.SellerKeyFilter;
+import com.abneco.delivery.utils.TimeService;
 import com.abneco.delivery.utils.UpperCaseFormatter;
 import com.abneco.delivery.utils.ValidateSeller;
+import com.abneco.delivery.validation.FormValidator;
+import com.abneco.delivery.validation.Violations;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -32,60 +68,174 @@ public class SellerService {
     @Autowired
     private SellerRepository repository;
 
-    public static final String SELLER_NOT_FOUND = "Seller not found.";
+    @Autowired
+    private SellerTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
 
-    private static String passwordEncryptor(String password) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        return encoder.encode(password);
+    @Autowired
+    private AddressAutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private SellerKeyFilter sellerKeyFilter;
+
+    @Autowired
+    private TimeService timeService;
+
+    public SellerService(SellerRepository repository, SellerTombstoneRepository tombstoneRepository,
+                         AddressRepository addressRepository, OutboxService outbox, DomainEventBus eventBus) {
+        this(repository, tombstoneRepository, addressRepository, new AddressAutocompleteIndex(), outbox,
+                TransactionOperations.withoutTransaction(), eventBus, new UserDetailsCache(), new PasswordHasher(),
+                new SellerKeyFilter(), new TimeService());
     }
 
+    public static final String SELLER_NOT_FOUND = "Seller not found.";
+    public static final int BULK_MAX_SIZE = 1000;
+    public static final int BULK_QUERY_CHUNK_SIZE = 500;
+    public static final int CHANGES_MAX_LIMIT = 1000;
+    public static final long CHANGES_SETTLE_SECONDS = 5;
+    private static final LocalDateTime CHANGES_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String NIL_ID = "00000000-0000-0000-0000-000000000000";
+
     public void registerSeller(SellerForm form) {
         try {
-            Optional<Seller> optionalUserEmail = repository.findByEmail(form.getEmail());
-            Optional<Seller> optionalUserCnpj = repository.findByCnpj(form.getCnpj());
-            if (optionalUserEmail.isPresent()) {
-                throw new RequestException("Email already in use.");
+            save(form);
+        } catch (DataIntegrityViolationException e) {
+            RequestException alreadyInUse = alreadyInUse(e, "Could not register seller.");
+            log.error(alreadyInUse.getMessage());
+            throw alreadyInUse;
+        } catch (RequestException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Could not register seller.", e);
+            throw new RequestException("Could not register seller.");
+        }
+    }
+
+    public BulkSellerResponse registerSellers(List<SellerForm> forms) {
+        return registerSellers(forms, response -> {
+        });
+    }
+
+    //inTransaction runs in the transaction of the inserts, so whatever it saves commits or rolls back with them.
+    public BulkSellerResponse registerSellers(List<SellerForm> forms, Consumer<BulkSellerResponse> inTransaction) {
+        if (forms == null || forms.isEmpty()) {
+            throw new RequestException("At least one seller must be informed.");
+        }
+        if (forms.size() > BULK_MAX_SIZE) {
+            throw new RequestException("At most " + BULK_MAX_SIZE + " sellers can be registered at once.");
+        }
+        try {
+            List<BulkSellerRejection> rejected = new ArrayList<>();
+            List<Integer> candidates = validateBatch(forms, rejected);
+
+            List<Integer> accepted = rejectAlreadyInUse(forms, candidates, rejected,
+                    findAlreadyInUse(keys(forms, candidates, SellerForm::getEmail, sellerKeyFilter::mightContainEmail),
+                            repository::findExistingEmails),
+                    findAlreadyInUse(keys(forms, candidates, SellerForm::getCnpj, sellerKeyFilter::mightContainCnpj),
+                            repository::findExistingCnpjs));
+
+            List<String> passwords = accepted.stream()
+                    .map(index -> forms.get(index).getPassword())
+                    .collect(Collectors.toList());
+            List<String> hashList = passwordHasher.hashAll(passwords);
+            Map<Integer, String> hashes = new HashMap<>();
+            for (int position = 0; position < accepted.size(); position++) {
+                hashes.put(accepted.get(position), hashList.get(position));
+            }
+
+            BulkSellerResponse response;
+            List<Seller> sellers;
+            try {
+                sellers = toSellers(forms, accepted, hashes);
+                response = insertAll(sellers, rejected, inTransaction);
+            } catch (DataIntegrityViolationException e) {
+                //the filter only knows the keys seen by this node, so a seller inserted elsewhere can still collide.
+                //Every key of the batch is checked again and the others are inserted once more.
+                log.warn("Bulk registration hit a unique key, checking the whole batch again. " + e.getMessage());
+                accepted = rejectAlreadyInUse(forms, accepted, rejected,
+                        findAlreadyInUse(keys(forms, accepted, SellerForm::getEmail, key -> true),
+                                repository::findExistingEmails),
+                        findAlreadyInUse(keys(forms, accepted, SellerForm::getCnpj, key -> true),
+                                repository::findExistingCnpjs));
+                sellers = toSellers(forms, accepted, hashes);
+                response = insertAll(sellers, rejected, inTransaction);
             }
-            if (optionalUserCnpj.isPresent()) {
-                throw new RequestException("Cnpj already in use.");
+            for (Seller seller : sellers) {
+                sellerKeyFilter.add(seller.getEmail(), seller.getCnpj());
+                eventBus.publish(DomainEventType.SELLER_REGISTERED, seller.getId(), seller.getEmail());
             }
+            return response;
 
-            save(SellerMapper.fromFormToSellerEntity(form), form);
         } catch (RequestException e) {
             log.error(e.getMessage());
-            throw new RequestException(e.getMessage());
+            throw e;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            log.error(e.getMessage());
-            throw new RequestException("Could not register seller.");
+            log.error("Could not register sellers.", e);
+            throw new RequestException("Could not register sellers.");
         }
     }
 
+    @Transactional
     public SellerResponse updateSeller(SellerUpdateForm form) {
         try {
-            Optional<Seller> optionalUser = repository.findById(form.getId());
-            if (optionalUser.isEmpty()) {
+            ValidateSeller.validateSeller(form);
+            //a cache hit in most cases, whereas a bulk update would evict every seller from the second-level cache.
+            Optional<Seller> optionalSeller = repository.findById(form.getId());
+            if (optionalSeller.isEmpty()) {
                 throw new ResourceNotFoundException(SELLER_NOT_FOUND);
             }
-            Seller seller = optionalUser.get();
+            Seller seller = optionalSeller.get();
             seller.setName(UpperCaseFormatter.formatToCapitalLetter(form.getName()));
             seller.setEmail(form.getEmail());
             seller.setPhoneNumber(form.getPhoneNumber());
             seller.setCnpj(form.getCnpj());
-            seller.setUpdatedAt(DateFormatter.formatNow());
-            save(seller, form);
-            return SellerResponseMapper.fromEntityToResponse(seller);
+            seller.setUpdatedAt(timeService.now());
+            //flushing here makes unique key violations surface inside the try, where they are translated.
+            repository.flush();
+            sellerKeyFilter.add(form.getEmail(), form.getCnpj());
+            SellerResponse response = SellerResponseMapper.fromEntityToResponse(seller);
+            outbox.record(OutboxEventType.SELLER_UPDATED, form.getId(), response);
+            eventBus.publishAfterCommit(DomainEventType.SELLER_UPDATED, form.getId(), form.getEmail());
+            userDetailsCache.evictSellerAfterCommit(form.getId());
+            return response;
 
         } catch (ResourceNotFoundException e) {
             log.error("Seller not found: " + e.getMessage());
-            throw new ResourceNotFoundException(e.getMessage());
+            throw e;
+
+        } catch (DataIntegrityViolationException e) {
+            RequestException alreadyInUse = alreadyInUse(e, "Could not update seller.");
+            log.error(alreadyInUse.getMessage());
+            throw alreadyInUse;
 
         } catch (RequestException e) {
             log.error(e.getMessage());
-            throw new RequestException(e.getMessage());
+            throw e;
 
         } catch (Exception e) {
-            log.error(e.getMessage());
+            log.error("Could not update seller.", e);
             throw new RequestException("Could not update seller.");
         }
     }
@@ -99,9 +249,9 @@ public class SellerService {
             return SellerResponseMapper.fromEntityToResponse(optionalSeller.get());
         } catch (ResourceNotFoundException e) {
             log.error(e.getMessage());
-            throw new ResourceNotFoundException(e.getMessage());
+            throw e;
         } catch (Exception e) {
-            log.error(e.getMessage());
+            log.error("Could not find seller by id: " + id, e);
             throw new RequestException("Could not find seller by id: " + id);
         }
     }
@@ -115,31 +265,250 @@ public class SellerService {
         return response;
     }
 
+    public SellerChangesResponse findSellerChanges(String since, int limit) {
+        if (limit < 1 || limit > CHANGES_MAX_LIMIT) {
+            throw new RequestException("Limit must be between 1 and " + CHANGES_MAX_LIMIT + ".");
+        }
+        LocalDateTime updatedAt = CHANGES_START;
+        String id = NIL_ID;
+        if (since != null && !since.isBlank()) {
+            String[] cursor = decodeCursor(since);
+            updatedAt = LocalDateTime.parse(cursor[0]);
+            id = cursor[1];
+        }
+        try {
+            //rows younger than the settle window may still have concurrent transactions committing older timestamps,
+            //returning them would move the cursor past rows the client has not seen yet.
+            LocalDateTime until = timeService.now().minusSeconds(CHANGES_SETTLE_SECONDS);
+            //one extra row tells whether there is another page without a count query.
+            PageRequest page = PageRequest.of(0, limit + 1);
+            List<Seller> sellers = repository.findChangedSince(updatedAt, id, until, page);
+            List<SellerTombstone> tombstones = tombstoneRepository.findDeletedSince(updatedAt, id, until, page);
+            //both come ordered by (timestamp, id), merging them keeps a single cursor over updates and deletions.
+            List<SellerResponse> response = new ArrayList<>();
+            List<String> deleted = new ArrayList<>();
+            int nextSeller = 0;
+            int nextTombstone = 0;
+            String nextCursor = since;
+            while (response.size() + deleted.size() < limit
+                    && (nextSeller < sellers.size() || nextTombstone < tombstones.size())) {
+                Seller seller = nextSeller < sellers.size() ? sellers.get(nextSeller) : null;
+                SellerTombstone tombstone = nextTombstone < tombstones.size() ? tombstones.get(nextTombstone) : null;
+                if (tombstone == null || (seller != null && compareKeys(seller.getUpdatedAt(), seller.getId(),
+                        tombstone.getDeletedAt(), tombstone.getId()) < 0)) {
+                    response.add(SellerResponseMapper.fromEntityToResponse(seller));
+                    nextCursor = encodeCursor(seller.getUpdatedAt(), seller.getId());
+                    nextSeller++;
+                } else {
+                    deleted.add(tombstone.getId());
+                    nextCursor = encodeCursor(tombstone.getDeletedAt(), tombstone.getId());
+                    nextTombstone++;
+                }
+            }
+            boolean hasMore = nextSeller < sellers.size() || nextTombstone < tombstones.size();
+            return new SellerChangesResponse(response, deleted, nextCursor, hasMore);
+        } catch (Exception e) {
+            log.error("Could not find seller changes.", e);
+            throw new RequestException("Could not find seller changes.");
+        }
+    }
+
+    @Transactional
     public void deleteSellerById(String id) {
         try {
+            //a cache hit in most cases. Removing the loaded entities evicts only their own entries, whereas a bulk
+            //delete would evict every seller and address from the second-level cache.
             Optional<Seller> optionalSeller = repository.findById(id);
             if (optionalSeller.isEmpty()) {
                 throw new ResourceNotFoundException(SELLER_NOT_FOUND);
             }
-            repository.deleteById(id);
+            Optional<Address> address = addressRepository.findBySellerId(id);
+            if (address.isPresent()) {
+                addressRepository.delete(address.get());
+                autocompleteIndex.releaseAfterCommit(address.get().toTemplate());
+            }
+            repository.delete(optionalSeller.get());
+            tombstoneRepository.save(new SellerTombstone(id, timeService.now()));
+            outbox.record(OutboxEventType.SELLER_DELETED, id, null);
+            eventBus.publishAfterCommit(DomainEventType.SELLER_DELETED, id, null);
+            userDetailsCache.evictSellerAfterCommit(id);
         } catch (ResourceNotFoundException e) {
             log.error(e.getMessage());
-            throw new ResourceNotFoundException(e.getMessage());
+            throw e;
 
         } catch (Exception e) {
-            log.error(e.getMessage());
+            log.error("Could not delete seller with id: " + id, e);
             throw new RequestException("Could not delete seller with id: " + id);
         }
     }
 
-    private void save(Seller seller, SellerForm form) {
-        ValidateSeller.validateSeller(form);
-        seller.setPassword(passwordEncryptor(form.getPassword()));
-        repository.save(seller);
+    private List<Integer> validateBatch(List<SellerForm> forms, List<BulkSellerRejection> rejected) {
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchCnpjs = new HashSet<>();
+        Violations violations = new Violations();
+        for (int index = 0; index < forms.size(); index++) {
+            SellerForm form = forms.get(index);
+            if (form == null) {
+                rejected.add(new BulkSellerRejection(index, null, "Seller must not be null."));
+                continue;
+            }
+            //every problem of the form is reported at once, so it can be fixed before the batch is sent again.
+            if (!FormValidator.validate(form, violations.clear()).isValid()) {
+                rejected.add(new BulkSellerRejection(index, form.getEmail(), violations.describe()));
+                continue;
+            }
+            if (!batchEmails.add(normalize(form.getEmail()))) {
+                rejected.add(new BulkSellerRejection(index, form.getEmail(), "Email repeated in the same batch."));
+            } else if (!batchCnpjs.add(form.getCnpj())) {
+                rejected.add(new BulkSellerRejection(index, form.getEmail(), "Cnpj repeated in the same batch."));
+            } else {
+                candidates.add(index);
+            }
+        }
+        return candidates;
     }
 
-    private void save(Seller seller, SellerUpdateForm form) {
+    //the same order as the keyset queries, ids are lowercase hex so they sort like their BINARY(16) form.
+    private static int compareKeys(LocalDateTime at, String id, LocalDateTime otherAt, String otherId) {
+        int byTime = at.compareTo(otherAt);
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+
+    private static String encodeCursor(LocalDateTime updatedAt, String id) {
+        String cursor = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String since) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(since), StandardCharsets.UTF_8);
+            String[] cursor = decoded.split("\\|", 2);
+            LocalDateTime.parse(cursor[0]);
+            UUID.fromString(cursor[1]);
+            return cursor;
+        } catch (RuntimeException e) {
+            log.error("Invalid changes cursor: " + since);
+            throw new RequestException("Invalid cursor.");
+        }
+    }
+
+    //The unique constraints on email and cnpj are the source of truth. MySQL 8 reports the violated key prefixed
+    //with its table, as in seller.uk_seller_email.
+    private static RequestException alreadyInUse(DataIntegrityViolationException e, String fallback) {
+        String constraint = violatedConstraint(e);
+        if (constraint.endsWith(Seller.EMAIL_UNIQUE_KEY)) {
+            return new RequestException("Email already in use.");
+        }
+        if (constraint.endsWith(Seller.CNPJ_UNIQUE_KEY)) {
+            return new RequestException("Cnpj already in use.");
+        }
+        return new RequestException(fallback);
+    }
+
+    private static String violatedConstraint(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String name = ((ConstraintViolationException) cause).getConstraintName();
+                return name == null ? "" : name.toLowerCase(Locale.ROOT);
+            }
+        }
+        return "";
+    }
+
+    private static List<String> keys(List<SellerForm> forms, List<Integer> indexes, Function<SellerForm, String> key,
+                                     Predicate<String> mightBeInUse) {
+        return indexes.stream()
+                .map(index -> key.apply(forms.get(index)))
+                .filter(mightBeInUse)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> rejectAlreadyInUse(List<SellerForm> forms, List<Integer> indexes,
+                                                    List<BulkSellerRejection> rejected, Set<String> emailsInUse,
+                                                    Set<String> cnpjsInUse) {
+        List<Integer> accepted = new ArrayList<>();
+        for (Integer index : indexes) {
+            SellerForm form = forms.get(index);
+            if (emailsInUse.contains(normalize(form.getEmail()))) {
+                rejected.add(new BulkSellerRejection(index, form.getEmail(), "Email already in use."));
+            } else if (cnpjsInUse.contains(form.getCnpj())) {
+                rejected.add(new BulkSellerRejection(index, form.getEmail(), "Cnpj already in use."));
+            } else {
+                accepted.add(index);
+            }
+        }
+        return accepted;
+    }
+
+    //new entities every time, a rolled back insert leaves its ids on the ones it was given.
+    private List<Seller> toSellers(List<SellerForm> forms, List<Integer> indexes, Map<Integer, String> hashes) {
+        List<Seller> sellers = new ArrayList<>(indexes.size());
+        LocalDateTime now = timeService.now();
+        for (Integer index : indexes) {
+            Seller seller = SellerMapper.fromFormToSellerEntity(forms.get(index), now);
+            seller.setPassword(hashes.get(index));
+            sellers.add(seller);
+        }
+        return sellers;
+    }
+
+    //hashing stays outside, the transaction only covers the inserts, their outbox events and inTransaction.
+    private BulkSellerResponse insertAll(List<Seller> sellers, List<BulkSellerRejection> rejected,
+                                         Consumer<BulkSellerResponse> inTransaction) {
+        BulkSellerResponse response = new BulkSellerResponse(sellers.size(), rejected);
+        transactionOperations.executeWithoutResult(status -> {
+            repository.saveAll(sellers);
+            outbox.recordAll(OutboxEventType.SELLER_REGISTERED, sellers, Seller::getId,
+                    SellerResponseMapper::fromEntityToResponse);
+            inTransaction.accept(response);
+        });
+        return response;
+    }
+
+    private static Set<String> findAlreadyInUse(List<String> values, Function<Collection<String>, List<String>> query) {
+        Set<String> inUse = new HashSet<>();
+        for (int from = 0; from < values.size(); from += BULK_QUERY_CHUNK_SIZE) {
+            List<String> chunk = values.subList(from, Math.min(from + BULK_QUERY_CHUNK_SIZE, values.size()));
+            for (String value : query.apply(chunk)) {
+                inUse.add(normalize(value));
+            }
+        }
+        return inUse;
+    }
+
+    //MySQL compares emails case-insensitively, so the batch must do the same.
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private void save(SellerForm form) {
         ValidateSeller.validateSeller(form);
-        repository.save(seller);
+        rejectIfAlreadyInUse(form);
+        String hash = passwordHasher.hash(form.getPassword());
+        //stamped right before the insert, a queued hash must not eat into the changes feed's CHANGES_SETTLE_SECONDS.
+        Seller seller = SellerMapper.fromFormToSellerEntity(form, timeService.now());
+        seller.setPassword(hash);
+        transactionOperations.executeWithoutResult(status -> {
+            repository.save(seller);
+            outbox.record(OutboxEventType.SELLER_REGISTERED, seller.getId(),
+                    SellerResponseMapper.fromEntityToResponse(seller));
+        });
+        sellerKeyFilter.add(seller.getEmail(), seller.getCnpj());
+        eventBus.publish(DomainEventType.SELLER_REGISTERED, seller.getId(), seller.getEmail());
+    }
+
+    //only a possible hit in the key filter costs a query, and it saves the BCrypt hash of a doomed registration.
+    //while the filter is still loading the unique constraints alone decide, as they do for a false negative.
+    private void rejectIfAlreadyInUse(SellerForm form) {
+        if (!sellerKeyFilter.isReady()) {
+            return;
+        }
+        if (sellerKeyFilter.mightContainEmail(form.getEmail()) && repository.findByEmail(form.getEmail()).isPresent()) {
+            throw new RequestException("Email already in use.");
+        }
+        if (sellerKeyFilter.mightContainCnpj(form.getCnpj()) && repository.findByCnpj(form.getCnpj()).isPresent()) {
+            throw new RequestException("Cnpj already in use.");
+        }
     }
 }
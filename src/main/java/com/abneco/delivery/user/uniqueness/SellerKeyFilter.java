@@ -0,0 +1,173 @@
+package com.abneco.delivery.user.uniqueness;
+
+import com.abneco.delivery.cache.CacheInvalidation;
+import com.abneco.delivery.cache.InvalidationTarget;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.user.repository.SellerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over the emails and cnpjs already registered, so a new seller only costs a uniqueness query when
+ * one of its keys might be taken. The unique constraints stay the final guard.
+ * <p>
+ * The filters are built from a streaming scan once the application is ready, fed with every local insert or change
+ * and with the sellers other nodes wrote, as they show up in the outbox. Deleted keys cannot be removed from a
+ * Bloom filter, so the filters are rebuilt from scratch now and then, on a thread of their own so the scan does not
+ * hold a scheduler thread. Until the first build finishes every key is a possible hit.
+ */
+@Component
+@Slf4j
+public class SellerKeyFilter implements InvalidationTarget {
+
+    public static final long DEFAULT_EXPECTED_SELLERS = 1_000_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final SellerRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final long expectedSellers;
+    private final double falsePositiveRate;
+    //one rebuild running and at most one waiting, any other request is already covered by the waiting one.
+    private final ThreadPoolExecutor rebuilder;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public SellerKeyFilter() {
+        this(null, TransactionOperations.withoutTransaction(), DEFAULT_EXPECTED_SELLERS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    @Autowired
+    public SellerKeyFilter(SellerRepository repository, TransactionOperations transactionOperations,
+                           @Value("${seller.key-filter.expected-sellers:1000000}") long expectedSellers,
+                           @Value("${seller.key-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.expectedSellers = expectedSellers;
+        this.falsePositiveRate = falsePositiveRate;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("seller-key-filter-");
+        threadFactory.setDaemon(true);
+        this.rebuilder = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuildInBackground();
+    }
+
+    @Scheduled(fixedDelayString = "${seller.key-filter.rebuild-ms:86400000}",
+            initialDelayString = "${seller.key-filter.rebuild-ms:86400000}")
+    public void rebuildInBackground() {
+        rebuilder.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            long sellers = repository.count();
+            //headroom for the sellers registered until the next rebuild.
+            Filters next = new Filters(Math.max(expectedSellers, sellers * 2), falsePositiveRate);
+            //published before the scan starts, a seller committed after the scan's snapshot is added by its writer.
+            building = next;
+            transactionOperations.executeWithoutResult(status -> {
+                try (Stream<SellerKeys> keys = repository.streamKeys()) {
+                    keys.forEach(seller -> next.put(seller.getEmail(), seller.getCnpj()));
+                }
+            });
+            current = next;
+            log.info("Built seller key filters over " + sellers + " sellers in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (Exception e) {
+            log.error("Could not build seller key filters.", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null || filters.emails.mightContain(normalize(email));
+    }
+
+    public boolean mightContainCnpj(String cnpj) {
+        Filters filters = current;
+        return filters == null || cnpj == null || filters.cnpjs.mightContain(cnpj);
+    }
+
+    public void add(String email, String cnpj) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(email, cnpj);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.put(email, cnpj);
+        }
+    }
+
+    @Override
+    public void invalidate(List<CacheInvalidation> invalidations) {
+        if (current == null && building == null) {
+            return;
+        }
+        Set<String> sellerIds = invalidations.stream()
+                .filter(invalidation -> invalidation.getEventType() == OutboxEventType.SELLER_REGISTERED
+                        || invalidation.getEventType() == OutboxEventType.SELLER_UPDATED)
+                .map(CacheInvalidation::getAggregateId)
+                .collect(Collectors.toSet());
+        if (!sellerIds.isEmpty()) {
+            repository.findKeysByIds(sellerIds).forEach(seller -> add(seller.getEmail(), seller.getCnpj()));
+        }
+    }
+
+    //MySQL compares emails case-insensitively, so the filter does the same.
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        private final BloomFilter emails;
+        private final BloomFilter cnpjs;
+
+        private Filters(long expected, double falsePositiveRate) {
+            this.emails = new BloomFilter(expected, falsePositiveRate);
+            this.cnpjs = new BloomFilter(expected, falsePositiveRate);
+        }
+
+        private void put(String email, String cnpj) {
+            if (email != null) {
+                emails.put(normalize(email));
+            }
+            if (cnpj != null) {
+                cnpjs.put(cnpj);
+            }
+        }
+    }
+}
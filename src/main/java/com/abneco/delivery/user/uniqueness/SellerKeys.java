@@ -0,0 +1,16 @@
+package com.abneco.delivery.user.uniqueness;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellerKeys {
+
+    private String email;
+    private String cnpj;
+}
@@ -5,9 +5,10 @@ import java.time.format.DateTimeFormatter;
 
 public class DateFormatter {
 
-    public static String formatNow() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        return LocalDateTime.now().format(formatter);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    public static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.format(FORMATTER);
     }
 
     private DateFormatter() {
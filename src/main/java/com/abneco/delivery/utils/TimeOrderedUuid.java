@@ -0,0 +1,41 @@
+package com.abneco.delivery.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562): 48 bits of unix epoch millis, a 12 bit counter and 62 random bits.
+ * Ids generated by the same node are strictly increasing, so inserts always land at the end of the
+ * clustered index instead of splitting random pages.
+ */
+public class TimeOrderedUuid {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+    public static UUID generate() {
+        long timestamp = nextTimestamp();
+        long millis = timestamp >>> COUNTER_BITS;
+        long counter = timestamp & ((1L << COUNTER_BITS) - 1);
+        long mostSignificantBits = (millis << 16) | 0x7000L | counter;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    //millis and counter packed together; when the counter overflows it borrows the next millisecond.
+    private static long nextTimestamp() {
+        while (true) {
+            long last = LAST_TIMESTAMP.get();
+            long now = System.currentTimeMillis() << COUNTER_BITS;
+            long next = now > last ? now : last + 1;
+            if (LAST_TIMESTAMP.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private TimeOrderedUuid() {
+    }
+}
@@ -0,0 +1,97 @@
+package com.abneco.delivery.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Every wall-clock timestamp of the application comes from here, so a fixed {@link Clock} makes them all predictable
+ * in tests. Durations are still measured with System.nanoTime, and {@link TimeOrderedUuid} reads the system clock
+ * itself, since its ids only need to be ordered.
+ * The formatted variants have a one second resolution: they are formatted once per second and shared by every caller
+ * within it.
+ */
+@Component
+public class TimeService {
+
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private final Clock clock;
+    private final AtomicReference<Formatted> formatted = new AtomicReference<>();
+
+    public TimeService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    @Autowired
+    public TimeService(Clock clock) {
+        this.clock = clock;
+    }
+
+    //TIMESTAMP(6) keeps microseconds, truncating here keeps the stored value equal to the one in memory.
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public Instant instant() {
+        return clock.instant();
+    }
+
+    public long epochMillis() {
+        return clock.millis();
+    }
+
+    public long epochSecond() {
+        return Math.floorDiv(clock.millis(), 1000);
+    }
+
+    //dd/MM/yyyy HH:mm:ss, as shown in the responses.
+    public String formatNow() {
+        return current().display;
+    }
+
+    //the same string encoded as UTF-8, shared by every caller within the second, so it must not be modified.
+    public byte[] formatNowUtf8() {
+        return current().displayUtf8;
+    }
+
+    public String isoNow() {
+        return current().iso;
+    }
+
+    private Formatted current() {
+        long second = epochSecond();
+        Formatted current = formatted.get();
+        if (current != null && current.second == second) {
+            return current;
+        }
+        Formatted fresh = new Formatted(ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), clock.getZone()));
+        //two threads may format the same second, but one that read the clock late must not put an older one back.
+        if (current == null || current.second < second) {
+            formatted.compareAndSet(current, fresh);
+        }
+        return fresh;
+    }
+
+    private static final class Formatted {
+        private final long second;
+        private final String display;
+        private final byte[] displayUtf8;
+        private final String iso;
+
+        private Formatted(ZonedDateTime time) {
+            this.second = time.toEpochSecond();
+            this.display = DISPLAY.format(time);
+            this.displayUtf8 = display.getBytes(StandardCharsets.UTF_8);
+            this.iso = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time);
+        }
+    }
+}
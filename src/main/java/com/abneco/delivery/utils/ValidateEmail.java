@@ -1,17 +1,13 @@
 package com.abneco.delivery.utils;
 
-import com.abneco.delivery.exception.RequestException;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.abneco.delivery.validation.Matchers;
+import com.abneco.delivery.validation.Violation;
 
 public class ValidateEmail {
+
     public static void validateEmail(String email) {
-        String emailRegex = ".+[@].+[.].+";
-        Pattern pattern = Pattern.compile(emailRegex);
-        Matcher matcher = pattern.matcher(email);
-        if (!matcher.matches()) {
-            throw new RequestException("Email has incorrect format.");
+        if (!Matchers.isEmail(email)) {
+            throw Violation.INVALID_EMAIL.toException();
         }
     }
 
@@ -0,0 +1,71 @@
+package com.abneco.delivery.validation;
+
+import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.address.dto.AddressUpdateForm;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.user.json.SellerUpdateForm;
+
+/**
+ * Checks every field of a form in one pass and records what is wrong in a {@link Violations}, without throwing.
+ * Callers that only report one problem throw {@link Violations#throwIfInvalid()}, the bulk registration reports
+ * them all.
+ */
+public final class FormValidator {
+
+    public static final int MIN_NAME_LENGTH = 3;
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
+    private FormValidator() {
+    }
+
+    public static Violations validate(SellerForm form) {
+        return validate(form, new Violations());
+    }
+
+    public static Violations validate(SellerForm form, Violations violations) {
+        checkSeller(form.getEmail(), form.getCnpj(), form.getName(), violations);
+        if (form.getPassword() == null || form.getPassword().length() < MIN_PASSWORD_LENGTH) {
+            violations.add(Violation.SHORT_PASSWORD);
+        }
+        return violations;
+    }
+
+    public static Violations validate(SellerUpdateForm form) {
+        Violations violations = new Violations();
+        checkSeller(form.getEmail(), form.getCnpj(), form.getName(), violations);
+        return violations;
+    }
+
+    public static Violations validate(AddressForm form) {
+        Violations violations = new Violations();
+        checkAddress(form.getCep(), form.getNumero(), violations);
+        return violations;
+    }
+
+    public static Violations validate(AddressUpdateForm form) {
+        Violations violations = new Violations();
+        checkAddress(form.getCep(), form.getNumero(), violations);
+        return violations;
+    }
+
+    private static void checkSeller(String email, String cnpj, String name, Violations violations) {
+        if (!Matchers.isEmail(email)) {
+            violations.add(Violation.INVALID_EMAIL);
+        }
+        if (!Matchers.isCnpj(cnpj)) {
+            violations.add(Violation.INVALID_CNPJ);
+        }
+        if (name == null || name.length() < MIN_NAME_LENGTH) {
+            violations.add(Violation.INVALID_NAME);
+        }
+    }
+
+    private static void checkAddress(String cep, Integer numero, Violations violations) {
+        if (!Matchers.isCep(cep)) {
+            violations.add(Violation.INVALID_CEP);
+        }
+        if (numero == null) {
+            violations.add(Violation.MISSING_NUMBER);
+        }
+    }
+}
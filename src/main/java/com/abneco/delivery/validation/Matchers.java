@@ -0,0 +1,59 @@
+package com.abneco.delivery.validation;
+
+import com.abneco.delivery.address.cep.Cep;
+
+/**
+ * Hand-rolled replacements for the patterns the forms used to be checked with, each a single scan of the value.
+ */
+public final class Matchers {
+
+    public static final int CNPJ_LENGTH = 14;
+
+    private Matchers() {
+    }
+
+    //accepts exactly what .+[@].+[.].+ matched: an @ after the first character and, at least two characters after
+    //it, a dot that is not the last character. The pattern's dots do not match line terminators, so neither does this.
+    public static boolean isEmail(String value) {
+        if (value == null) {
+            return false;
+        }
+        int length = value.length();
+        int at = -1;
+        int dot = -1;
+        for (int index = 0; index < length; index++) {
+            char character = value.charAt(index);
+            if (isLineTerminator(character)) {
+                return false;
+            }
+            if (character == '@' && at < 0 && index > 0) {
+                at = index;
+            } else if (character == '.' && index < length - 1) {
+                dot = index;
+            }
+        }
+        return at > 0 && dot >= at + 2;
+    }
+
+    public static boolean isCnpj(String value) {
+        if (value == null || value.length() != CNPJ_LENGTH) {
+            return false;
+        }
+        for (int index = 0; index < CNPJ_LENGTH; index++) {
+            char character = value.charAt(index);
+            if (character < '0' || character > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isCep(String value) {
+        return Cep.parse(value) != Cep.INVALID;
+    }
+
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085'
+                || character == '\u2028' || character == '\u2029';
+    }
+}
@@ -0,0 +1,33 @@
+package com.abneco.delivery.validation;
+
+import com.abneco.delivery.exception.RequestException;
+
+/**
+ * Everything a form can be rejected for, declared in the order the fields are checked, so the first violation found
+ * is also the one with the lowest ordinal. Each carries its own preallocated exception.
+ */
+public enum Violation {
+
+    INVALID_EMAIL("Email has incorrect format."),
+    INVALID_CNPJ("Cnpj must have 14 numbers, and numbers only."),
+    INVALID_NAME("Name must be neither null nor shorter than 3."),
+    SHORT_PASSWORD("Password must be at least 8 char long."),
+    INVALID_CEP("Please verify if cep has 8 numbers, and numbers only."),
+    MISSING_NUMBER("Address number must not be null.");
+
+    private final String message;
+    private final RequestException exception;
+
+    Violation(String message) {
+        this.message = message;
+        this.exception = new RequestException(message);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public RequestException toException() {
+        return exception;
+    }
+}
@@ -0,0 +1,60 @@
+package com.abneco.delivery.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The outcome of validating a form: one bit per {@link Violation}. Nothing is allocated while validating, and a
+ * single instance can be cleared and reused for every form of a batch.
+ */
+public final class Violations {
+
+    private static final Violation[] VIOLATIONS = Violation.values();
+
+    private int mask;
+
+    public void add(Violation violation) {
+        mask |= 1 << violation.ordinal();
+    }
+
+    public boolean contains(Violation violation) {
+        return (mask & (1 << violation.ordinal())) != 0;
+    }
+
+    public boolean isValid() {
+        return mask == 0;
+    }
+
+    public Violation first() {
+        return mask == 0 ? null : VIOLATIONS[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    public List<Violation> all() {
+        List<Violation> all = new ArrayList<>(Integer.bitCount(mask));
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            all.add(VIOLATIONS[Integer.numberOfTrailingZeros(bits)]);
+        }
+        return all;
+    }
+
+    public String describe() {
+        StringJoiner messages = new StringJoiner(" ");
+        for (Violation violation : all()) {
+            messages.add(violation.getMessage());
+        }
+        return messages.toString();
+    }
+
+    //the first violation, as the exception the single registration paths have always thrown.
+    public void throwIfInvalid() {
+        if (mask != 0) {
+            throw first().toException();
+        }
+    }
+
+    public Violations clear() {
+        mask = 0;
+        return this;
+    }
+}
@@ -0,0 +1,28 @@
+-- Converts seller_id, address_id and seller_fk from uuid2 VARCHAR(255) to BINARY(16).
+-- Run once against an existing database, with the application stopped, before deploying the version that
+-- maps the ids as BINARY(16). Existing ids keep their value; ids generated afterwards are time ordered.
+-- Hibernate (ddl-auto=update) recreates the seller_fk foreign key and unique key on the next start.
+
+SET @address_seller_fk := (SELECT CONSTRAINT_NAME
+                           FROM information_schema.KEY_COLUMN_USAGE
+                           WHERE TABLE_SCHEMA = DATABASE()
+                             AND TABLE_NAME = 'address'
+                             AND COLUMN_NAME = 'seller_fk'
+                             AND REFERENCED_TABLE_NAME = 'seller'
+                           LIMIT 1);
+SET @drop_address_seller_fk := CONCAT('ALTER TABLE address DROP FOREIGN KEY ', @address_seller_fk);
+PREPARE drop_address_seller_fk FROM @drop_address_seller_fk;
+EXECUTE drop_address_seller_fk;
+DEALLOCATE PREPARE drop_address_seller_fk;
+
+ALTER TABLE seller ADD COLUMN seller_id_bin BINARY(16);
+UPDATE seller SET seller_id_bin = UUID_TO_BIN(seller_id);
+ALTER TABLE seller DROP PRIMARY KEY, DROP COLUMN seller_id;
+ALTER TABLE seller RENAME COLUMN seller_id_bin TO seller_id;
+ALTER TABLE seller MODIFY seller_id BINARY(16) NOT NULL, ADD PRIMARY KEY (seller_id);
+
+ALTER TABLE address ADD COLUMN address_id_bin BINARY(16), ADD COLUMN seller_fk_bin BINARY(16);
+UPDATE address SET address_id_bin = UUID_TO_BIN(address_id), seller_fk_bin = UUID_TO_BIN(seller_fk);
+ALTER TABLE address DROP PRIMARY KEY, DROP COLUMN address_id, DROP COLUMN seller_fk;
+ALTER TABLE address RENAME COLUMN address_id_bin TO address_id, RENAME COLUMN seller_fk_bin TO seller_fk;
+ALTER TABLE address MODIFY address_id BINARY(16) NOT NULL, ADD PRIMARY KEY (address_id);
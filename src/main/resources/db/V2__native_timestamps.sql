@@ -0,0 +1,12 @@
+-- Converts seller.created_at and seller.updated_at from 'dd/MM/yyyy HH:mm:ss' strings to TIMESTAMP(6) and adds
+-- the (updated_at, seller_id) index used by GET /seller/changes.
+-- Run once against an existing database, with the application stopped, after V1__binary_uuid_keys.sql.
+-- Rows without an updated_at take created_at, so the first delta sync still returns every seller.
+
+ALTER TABLE seller ADD COLUMN created_at_ts TIMESTAMP(6) NULL, ADD COLUMN updated_at_ts TIMESTAMP(6) NULL;
+UPDATE seller SET created_at_ts = STR_TO_DATE(NULLIF(created_at, ''), '%d/%m/%Y %H:%i:%s'),
+                  updated_at_ts = STR_TO_DATE(NULLIF(updated_at, ''), '%d/%m/%Y %H:%i:%s');
+UPDATE seller SET updated_at_ts = COALESCE(created_at_ts, CURRENT_TIMESTAMP(6)) WHERE updated_at_ts IS NULL;
+ALTER TABLE seller DROP COLUMN created_at, DROP COLUMN updated_at;
+ALTER TABLE seller RENAME COLUMN created_at_ts TO created_at, RENAME COLUMN updated_at_ts TO updated_at;
+CREATE INDEX idx_seller_updated_at ON seller (updated_at, seller_id);
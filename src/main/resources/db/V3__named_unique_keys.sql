@@ -0,0 +1,40 @@
+-- Renames the unique keys Hibernate generated for seller.email, seller.cnpj and natural_person.email to the
+-- names mapped on the entities, which is how a duplicate registration tells which field is already in use.
+-- Run once against an existing database, with the application stopped, after V2__native_timestamps.sql.
+
+SET @seller_email_key := (SELECT INDEX_NAME
+                          FROM information_schema.STATISTICS
+                          WHERE TABLE_SCHEMA = DATABASE()
+                            AND TABLE_NAME = 'seller'
+                            AND COLUMN_NAME = 'email'
+                            AND NON_UNIQUE = 0
+                          LIMIT 1);
+SET @rename_seller_email_key := CONCAT('ALTER TABLE seller RENAME INDEX ', @seller_email_key, ' TO uk_seller_email');
+PREPARE rename_seller_email_key FROM @rename_seller_email_key;
+EXECUTE rename_seller_email_key;
+DEALLOCATE PREPARE rename_seller_email_key;
+
+SET @seller_cnpj_key := (SELECT INDEX_NAME
+                         FROM information_schema.STATISTICS
+                         WHERE TABLE_SCHEMA = DATABASE()
+                           AND TABLE_NAME = 'seller'
+                           AND COLUMN_NAME = 'cnpj'
+                           AND NON_UNIQUE = 0
+                         LIMIT 1);
+SET @rename_seller_cnpj_key := CONCAT('ALTER TABLE seller RENAME INDEX ', @seller_cnpj_key, ' TO uk_seller_cnpj');
+PREPARE rename_seller_cnpj_key FROM @rename_seller_cnpj_key;
+EXECUTE rename_seller_cnpj_key;
+DEALLOCATE PREPARE rename_seller_cnpj_key;
+
+SET @natural_person_email_key := (SELECT INDEX_NAME
+                                  FROM information_schema.STATISTICS
+                                  WHERE TABLE_SCHEMA = DATABASE()
+                                    AND TABLE_NAME = 'natural_person'
+                                    AND COLUMN_NAME = 'email'
+                                    AND NON_UNIQUE = 0
+                                  LIMIT 1);
+SET @rename_natural_person_email_key := CONCAT('ALTER TABLE natural_person RENAME INDEX ', @natural_person_email_key,
+                                               ' TO uk_natural_person_email');
+PREPARE rename_natural_person_email_key FROM @rename_natural_person_email_key;
+EXECUTE rename_natural_person_email_key;
+DEALLOCATE PREPARE rename_natural_person_email_key;
@@ -5,7 +5,9 @@ import com.abneco.delivery.address.dto.AddressForm;
 import com.abneco.delivery.address.mock.AddressMockRepository;
 import com.abneco.delivery.address.repository.AddressRepository;
 import com.abneco.delivery.address.service.AddressService;
+import com.abneco.delivery.event.DomainEventBus;
 import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.outbox.service.OutboxService;
 import com.abneco.delivery.user.mock.MockSellerRepositoryData;
 import com.abneco.delivery.user.repository.SellerRepository;
 import io.cucumber.datatable.DataTable;
@@ -19,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 public class AddressSteps {
 
@@ -38,7 +41,8 @@ public class AddressSteps {
         RestTemplate restTemplate = new RestTemplate();
         AddressRepository repository = new AddressMockRepository();
         SellerRepository sellerRepository = new MockSellerRepositoryData();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, mock(OutboxService.class),
+                mock(DomainEventBus.class));
         this.controller = new AddressController(service);
     }
 
@@ -1,6 +1,7 @@
 package com.abneco.delivery.acceptance.steps;
 
 import com.abneco.delivery.address.service.AddressService;
+import com.abneco.delivery.event.DomainEventBus;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.fee.controller.FeeController;
 import com.abneco.delivery.fee.dto.CepForm;
@@ -18,6 +19,7 @@ import java.math.BigDecimal;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 
 public class FeeStep {
 
@@ -33,7 +35,7 @@ public class FeeStep {
     public void setup() {
         RestTemplate restTemplate = new RestTemplate();
         AddressService addressService = new AddressService(restTemplate);
-        FeeService service = new FeeService(addressService);
+        FeeService service = new FeeService(addressService, mock(DomainEventBus.class));
         this.controller = new FeeController(service);
         this.form = new CepForm(CEP);
         this.invalidForm = new CepForm(INVALID_CEP);
@@ -1,11 +1,15 @@
 package com.abneco.delivery.acceptance.steps;
 
+import com.abneco.delivery.address.repository.AddressRepository;
+import com.abneco.delivery.event.DomainEventBus;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.outbox.service.OutboxService;
 import com.abneco.delivery.user.controller.SellerController;
 import com.abneco.delivery.user.json.SellerForm;
 import com.abneco.delivery.user.mock.MockSellerRepository;
 import com.abneco.delivery.user.repository.SellerRepository;
+import com.abneco.delivery.user.repository.SellerTombstoneRepository;
 import com.abneco.delivery.user.service.SellerService;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.Before;
@@ -18,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 public class SellerStep {
 
@@ -31,7 +36,8 @@ public class SellerStep {
     @Before
     public void setup() {
         SellerRepository repository = new MockSellerRepository();
-        SellerService service = new SellerService(repository);
+        SellerService service = new SellerService(repository, mock(SellerTombstoneRepository.class),
+                mock(AddressRepository.class), mock(OutboxService.class), mock(DomainEventBus.class));
         this.controller = new SellerController(service);
     }
 
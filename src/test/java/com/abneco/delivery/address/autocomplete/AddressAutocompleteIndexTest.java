@@ -0,0 +1,94 @@
+package com.abneco.delivery.address.autocomplete;
+
+import com.abneco.delivery.address.dto.AddressSuggestion;
+import com.abneco.delivery.address.dto.AddressTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressAutocompleteIndexTest {
+
+    private static AddressTO address(String cep, String logradouro) {
+        return AddressTO.builder().cep(cep).logradouro(logradouro).bairro("Centro").localidade("São Paulo").uf("SP")
+                .build();
+    }
+
+    private static List<String> ceps(List<AddressSuggestion> suggestions) {
+        return suggestions.stream().map(AddressSuggestion::getCep).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSearchByCepPrefix() {
+        AddressAutocompleteIndex index = new AddressAutocompleteIndex();
+        index.record(address("04555-000", "Rua Ministro Jesuíno Cardoso"), 1);
+        index.record(address("04555001", "Rua Ministro Jesuíno Cardoso"), 0);
+        index.record(address("01001000", "Praça da Sé"), 1);
+
+        assertEquals(List.of("04555-000", "04555-001"), ceps(index.search("0455", 10)));
+        assertEquals(List.of("04555-000"), ceps(index.search("04555-000", 10)));
+        assertTrue(index.search("0456", 10).isEmpty());
+    }
+
+    @Test
+    void testSearchByStreetIgnoresAccentsAndStreetType() {
+        AddressAutocompleteIndex index = new AddressAutocompleteIndex();
+        index.record(address("04555000", "Rua Ministro Jesuíno Cardoso"), 1);
+        index.record(address("01001000", "Praça da Sé"), 1);
+
+        assertEquals(List.of("04555-000"), ceps(index.search("rua ministro jesu", 10)));
+        assertEquals(List.of("04555-000"), ceps(index.search("Ministro  Jesuíno", 10)));
+        assertEquals(List.of("01001-000"), ceps(index.search("praca", 10)));
+        assertTrue(index.search("avenida", 10).isEmpty());
+        assertTrue(index.search(" ", 10).isEmpty());
+    }
+
+    @Test
+    void testMostUsedCepsComeFirst() {
+        AddressAutocompleteIndex index = new AddressAutocompleteIndex();
+        index.record(address("01310100", "Avenida Paulista"), 1);
+        index.record(address("01310200", "Avenida Paulista"), 1);
+        index.record(address("01310300", "Avenida Paulo VI"), 0);
+        index.record(address("01310200", "Avenida Paulista"), 1);
+        index.record(address("01310300", "Avenida Paulo VI"), 1);
+        index.record(address("01310300", "Avenida Paulo VI"), 1);
+        index.record(address("01310300", "Avenida Paulo VI"), 1);
+
+        assertEquals(List.of("01310-300", "01310-200", "01310-100"), ceps(index.search("paul", 10)));
+        assertEquals(List.of("01310-300", "01310-200"), ceps(index.search("0131", 2)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testReleasedCepsRankAgain() {
+        AddressAutocompleteIndex index = new AddressAutocompleteIndex(null, null, 1);
+        index.record(address("01310100", "Avenida Paulista"), 1);
+        index.record(address("01310100", "Avenida Paulista"), 1);
+        index.record(address("01310200", "Avenida Paulista"), 1);
+        assertEquals(List.of("01310-100"), ceps(index.search("paulista", 10)));
+
+        index.release(address("01310100", "Avenida Paulista"));
+        index.release(address("01310100", "Avenida Paulista"));
+
+        //01310-200 was not in the list of any node, it comes back from the lists ranked again.
+        assertEquals(List.of("01310-200"), ceps(index.search("paulista", 10)));
+        assertEquals(List.of("01310-200"), ceps(index.search("0131", 10)));
+        assertEquals(List.of("01310-200"), ceps(index.search("avenida paulista", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testReleaseNeverGoesBelowZero() {
+        AddressAutocompleteIndex index = new AddressAutocompleteIndex();
+        index.record(address("01310100", "Avenida Paulista"), 0);
+        index.record(address("01310200", "Avenida Paulo VI"), 1);
+        index.release(address("01310100", "Avenida Paulista"));
+        index.release(address("09999999", "Rua Desconhecida"));
+        index.record(address("01310100", "Avenida Paulista"), 1);
+        index.record(address("01310100", "Avenida Paulista"), 1);
+
+        assertEquals(List.of("01310-100", "01310-200"), ceps(index.search("avenida paul", 10)));
+    }
+}
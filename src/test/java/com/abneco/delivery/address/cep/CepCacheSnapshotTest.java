@@ -0,0 +1,83 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepCacheSnapshotTest {
+
+    public static final int CEP = 4555000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSnapshotRestoresLiveEntries() {
+        String file = directory.resolve("cep-cache.bin").toString();
+        CepCache cache = new CepCache();
+        cache.put(CEP, AddressTO.builder().cep("04555-000").logradouro("Rua Ministro Jesuíno Cardoso")
+                .bairro("Vila Nova Conceição").localidade("São Paulo").uf("SP").build());
+        cache.restore(1001000, AddressTO.builder().uf("SP").build(), System.currentTimeMillis() + 1000);
+        new CepCacheSnapshot(cache, file).save();
+
+        CepCache restarted = new CepCache();
+        new CepCacheSnapshot(restarted, file).load();
+
+        assertEquals(2, restarted.size());
+        AddressTO address = restarted.get(CEP);
+        assertEquals("04555-000", address.getCep());
+        assertEquals("Rua Ministro Jesuíno Cardoso", address.getLogradouro());
+        assertNull(address.getComplemento());
+        assertEquals("São Paulo", address.getLocalidade());
+    }
+
+    @Test
+    void testExpiredEntriesAreNotRestored() {
+        CepCache cache = new CepCache();
+        cache.restore(CEP, AddressTO.builder().uf("SP").build(), System.currentTimeMillis() - 1);
+        assertEquals(0, cache.size());
+        assertNull(cache.get(CEP));
+    }
+
+    @Test
+    void testCorruptSnapshotStartsCold() throws Exception {
+        Path file = directory.resolve("cep-cache.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        CepCache cache = new CepCache();
+        new CepCacheSnapshot(cache, file.toString()).load();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCorruptLengthDropsTheWholeSnapshot() throws Exception {
+        Path file = directory.resolve("cep-cache.bin");
+        CepCache cache = new CepCache();
+        cache.put(CEP, AddressTO.builder().cep("04555-000").uf("SP").build());
+        cache.put(1001000, AddressTO.builder().cep("01001-000").uf("SP").build());
+        new CepCacheSnapshot(cache, file.toString()).save();
+        //the cep string length of the last record claims far more bytes than the file has.
+        byte[] bytes = Files.readAllBytes(file);
+        int lastRecord = bytes.length - (Long.BYTES + Integer.BYTES + 4 + "01001-000".length() + 4 * 4 + 4 + 2);
+        ByteBuffer.wrap(bytes).putInt(lastRecord + Long.BYTES + Integer.BYTES, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        CepCache restarted = new CepCache();
+        new CepCacheSnapshot(restarted, file.toString()).load();
+        assertEquals(0, restarted.size());
+    }
+
+    @Test
+    void testCorruptCountStartsCold() throws Exception {
+        Path file = directory.resolve("cep-cache.bin");
+        Files.write(file, ByteBuffer.allocate(12).putInt(0x43455043).putInt(1).putInt(Integer.MAX_VALUE).array());
+        CepCache cache = new CepCache();
+        new CepCacheSnapshot(cache, file.toString()).load();
+        assertEquals(0, cache.size());
+    }
+}
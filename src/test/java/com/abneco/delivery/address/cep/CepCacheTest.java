@@ -0,0 +1,50 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepCacheTest {
+
+    @Test
+    void testParseCep() {
+        assertEquals(4555000, Cep.parse("04555-000"));
+        assertEquals(4555000, Cep.parse("04555000"));
+        assertEquals(Cep.INVALID, Cep.parse("0455500"));
+        assertEquals(Cep.INVALID, Cep.parse("0455a000"));
+        assertEquals(Cep.INVALID, Cep.parse("0455-5000"));
+        assertEquals(Cep.INVALID, Cep.parse(null));
+        assertEquals("04555000", Cep.digits(4555000));
+        assertEquals("04555-000", Cep.format(4555000));
+    }
+
+    @Test
+    void testCachedAddressIsRebuiltFromTheDictionary() {
+        CepCache cache = new CepCache();
+        cache.put(4555000, AddressTO.builder().cep("04555-000").logradouro("Rua Ministro Jesuíno Cardoso")
+                .bairro("Vila Nova Conceição").localidade("São Paulo").uf("SP").build());
+        cache.put(1001000, AddressTO.builder().cep("01001-000").logradouro("Praça da Sé")
+                .complemento("lado ímpar").bairro("Sé").localidade("São Paulo").uf("SP").build());
+
+        AddressTO first = cache.get(4555000);
+        AddressTO second = cache.get(1001000);
+        assertEquals("04555-000", first.getCep());
+        assertEquals("Rua Ministro Jesuíno Cardoso", first.getLogradouro());
+        assertNull(first.getComplemento());
+        assertEquals("Vila Nova Conceição", first.getBairro());
+        assertEquals("lado ímpar", second.getComplemento());
+        assertSame(first.getLocalidade(), second.getLocalidade());
+        assertNull(cache.get(1001001));
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        CepCache cache = new CepCache(1600, 24);
+        for (int cep = 1000000; cep < 1010000; cep++) {
+            cache.put(cep, AddressTO.builder().localidade("São Paulo").uf("SP").build());
+        }
+        assertTrue(cache.size() <= 1600);
+        assertNotNull(cache.get(1009999));
+    }
+}
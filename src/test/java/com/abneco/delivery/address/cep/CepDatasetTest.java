@@ -0,0 +1,55 @@
+package com.abneco.delivery.address.cep;
+
+import com.abneco.delivery.address.dto.AddressTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepDatasetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCompiledDatasetIsSearchable() throws Exception {
+        Path csv = directory.resolve("ceps.csv");
+        Path compiled = directory.resolve("ceps.bin");
+        Files.write(csv, List.of(
+                "cep;logradouro;bairro;localidade;uf",
+                "04555-000;Rua Ministro Jesuíno Cardoso;Vila Nova Conceição;São Paulo;SP",
+                "01001000;Praça da Sé;Sé;São Paulo;SP",
+                "57010-000;Rua Barão de Anadia;Centro;Maceió;AL",
+                "invalid;line"), StandardCharsets.UTF_8);
+
+        assertEquals(3, CepDatasetImporter.compile(csv, compiled));
+
+        CepDataset dataset = new CepDataset(compiled.toString());
+        dataset.open();
+        assertTrue(dataset.isLoaded());
+        assertEquals(3, dataset.size());
+
+        AddressTO address = dataset.find(4555000);
+        assertEquals("04555-000", address.getCep());
+        assertEquals("Rua Ministro Jesuíno Cardoso", address.getLogradouro());
+        assertEquals("Vila Nova Conceição", address.getBairro());
+        assertEquals("São Paulo", address.getLocalidade());
+        assertEquals("SP", address.getUf());
+        assertEquals("Maceió", dataset.find(57010000).getLocalidade());
+        assertEquals("Praça da Sé", dataset.find(1001000).getLogradouro());
+        assertNull(dataset.find(1001001));
+    }
+
+    @Test
+    void testMissingDatasetIsNotLoaded() {
+        CepDataset dataset = new CepDataset(directory.resolve("missing.bin").toString());
+        dataset.open();
+        assertFalse(dataset.isLoaded());
+        assertNull(dataset.find(4555000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.abneco.delivery.address.cep;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepHashRingTest {
+
+    public static final String NODE_A = "http://node-a:8080";
+    public static final String NODE_B = "http://node-b:8080";
+    public static final String NODE_C = "http://node-c:8080";
+
+    @Test
+    void testDisabledRingOwnsEveryCep() {
+        CepHashRing ring = CepHashRing.disabled();
+        assertFalse(ring.isEnabled());
+        assertTrue(ring.isSelf(ring.ownerOf(4555000)));
+    }
+
+    @Test
+    void testEveryNodeAgreesOnTheOwner() {
+        CepHashRing ringA = new CepHashRing(true, NODE_A, List.of(NODE_A, NODE_B, NODE_C), 128);
+        CepHashRing ringC = new CepHashRing(true, NODE_C, List.of(NODE_C, NODE_B, NODE_A), 128);
+        for (int cep = 1000000; cep < 1010000; cep++) {
+                        assertEquals(ringA.ownerOf(cep), ringC.ownerOf(cep));
+        }
+    }
+
+    @Test
+    void testCepsAreSpreadAcrossNodes() {
+        CepHashRing ring = new CepHashRing(true, NODE_A, List.of(NODE_A, NODE_B, NODE_C), 128);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int cep = 1000000; cep < 1030000; cep++) {
+            owned.merge(ring.ownerOf(cep), 1, Integer::sum);
+        }
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > 7000));
+    }
+
+    @Test
+    void testRemovingANodeOnlyMovesItsCeps() {
+        CepHashRing three = new CepHashRing(true, NODE_A, List.of(NODE_A, NODE_B, NODE_C), 128);
+        CepHashRing two = new CepHashRing(true, NODE_A, List.of(NODE_A, NODE_B), 128);
+        for (int cep = 1000000; cep < 1010000; cep++) {
+                        String owner = three.ownerOf(cep);
+            if (!owner.equals(NODE_C)) {
+                assertEquals(owner, two.ownerOf(cep));
+            }
+        }
+    }
+
+    @Test
+    void testSelfMustBeAPeer() {
+        List<String> peers = List.of(NODE_B, NODE_C);
+        assertThrows(IllegalArgumentException.class, () -> new CepHashRing(true, NODE_A, peers, 128));
+    }
+}
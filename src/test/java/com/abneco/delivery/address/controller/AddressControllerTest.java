@@ -17,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -71,4 +72,12 @@ class AddressControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void test_patch_address_invalid_cep() throws Exception {
+        mockMvc.perform(patch("/address/{addressId}", "addressId")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cep\":\"0455\"}"))
+                .andExpect(status().isBadRequest());
+    }
 }
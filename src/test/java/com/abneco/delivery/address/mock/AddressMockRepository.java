@@ -1,6 +1,7 @@
 package com.abneco.delivery.address.mock;
 
 import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.entity.Address;
 import com.abneco.delivery.address.repository.AddressRepository;
 import com.abneco.delivery.user.entity.JuridicalPerson;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,17 +23,27 @@ public class AddressMockRepository implements AddressRepository {
     public Optional<Address> findBySellerId(String userId) {
         SellerForm sellerForm = new SellerForm("seller1", "email2.string@email.com", "12345678", 11987654321L, "12348765324123");
         JuridicalPerson user = new JuridicalPerson(sellerForm.getEmail(), "12348765324123", sellerForm.getName(), sellerForm.getPassword(), sellerForm.getPhoneNumber(), false);
-        Seller seller = new Seller("lkajsçdlgnçblkdrt98709lsdkjfn,manfg", user, "", null);
+        Seller seller = new Seller("lkajsçdlgnçblkdrt98709lsdkjfn,manfg", user, null, null);
 
         AddressForm addressForm = new AddressForm(seller.getId(), "04555000", "", 123);
         Address address = new Address(seller, addressForm, "rua x", "jardim y", "cidade imaginária", "RJ");
         return Optional.of(address);
     }
 
+    @Override
+    public boolean existsBySellerId(String sellerId) {
+        return false;
+    }
+
+    @Override
+    public List<AddressTO> findAllTemplates() {
+        return new ArrayList<>();
+    }
+
     @Override
     public List<Address> findAll() {
         JuridicalPerson juridicalPerson = new JuridicalPerson("email.@gmail.com", "12345678123456", "Abneco Delivery", "12345678", 11908765132L, false);
-        Seller user = new Seller("kasdjlfkajsçdlkfjalçkdjfalkdjf", juridicalPerson, "", "");
+        Seller user = new Seller("kasdjlfkajsçdlkfjalçkdjfalkdjf", juridicalPerson, null, null);
         AddressForm form = new AddressForm("kasdjlfkajsçdlkfjalçkdjfalkdjf", "12345678", "", 24);
         return List.of(new Address(user, form, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ"));
     }
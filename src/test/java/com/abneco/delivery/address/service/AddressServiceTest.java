@@ -1,13 +1,20 @@
 package com.abneco.delivery.address.service;
 
+import com.abneco.delivery.address.autocomplete.AddressAutocompleteIndex;
 import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.address.dto.AddressPatchForm;
 import com.abneco.delivery.address.dto.AddressResponse;
 import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.dto.AddressUpdateForm;
 import com.abneco.delivery.address.entity.Address;
 import com.abneco.delivery.address.repository.AddressRepository;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.service.OutboxService;
 import com.abneco.delivery.user.entity.JuridicalPerson;
 import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.repository.SellerRepository;
@@ -16,10 +23,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +49,15 @@ class AddressServiceTest {
     @Mock
     private SellerRepository sellerRepository;
 
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private DomainEventBus eventBus;
+
+    @Mock
+    private AddressAutocompleteIndex autocompleteIndex;
+
     public static final String SELLER_ID = "alkdbmncvpasidupqowieursdasd";
     public static final String CEP = "04555-000";
     private static final String NEW_CEP = "69312349";
@@ -49,16 +70,15 @@ class AddressServiceTest {
     public static final String COMPLEMENTO = "";
     public static final Integer NUMERO = 123;
     public static final JuridicalPerson JURIDICAL_PERSON = new JuridicalPerson("email.@gmail.com", "12345678123456", "Abneco Delivery", "12345678", 11908765132L, false);
-    public static final Seller SELLER = new Seller("kasdjlfkajsçdlkfjalçkdjfalkdjf", JURIDICAL_PERSON, "", "");
+    public static final Seller SELLER = new Seller("kasdjlfkajsçdlkfjalçkdjfalkdjf", JURIDICAL_PERSON, null, null);
     public static final AddressForm ADDRESS_FORM = new AddressForm("kasdjlfkajsçdlkfjalçkdjfalkdjf", "12345678", "", 24);
     public static final Address ADDRESS = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
     public static final String ADDRESS_ID = "calskdjfalkjdfclakncldjaojidfasdflj";
-    public static final Seller SELLER_WITH_ADDRESS = new Seller("kasdjlfkajsçdlkfjalçkdjfalkdjf", JURIDICAL_PERSON, "", "", ADDRESS);
 
 
     @Test
     void testGetAddress() {
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = viaCep();
         AddressService service = new AddressService(restTemplate);
         AddressTO response = service.getAddressTemplate(CEP);
         assertNotNull(response);
@@ -67,7 +87,7 @@ class AddressServiceTest {
 
     @Test
     void testGetAddressCepOnlyNumbers() {
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = viaCep();
         AddressService service = new AddressService(restTemplate);
         AddressTO response = service.getAddressTemplate(CEP_NUMBERS);
         assertNotNull(response);
@@ -100,19 +120,20 @@ class AddressServiceTest {
 
     @Test
     void testRegisterAddressByCep() {
-        RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        RestTemplate restTemplate = viaCep();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
 
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(new Seller()));
         AddressForm form = new AddressForm(SELLER_ID, CEP, COMPLEMENTO, NUMERO);
         service.registerAddressByCep(form);
         verify(repository).save(any(Address.class));
+        verify(outbox).record(eq(OutboxEventType.ADDRESS_REGISTERED), any(), any(AddressResponse.class));
     }
 
     @Test
     void testRegisterAddressByCepRequestException() {
         RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(new Seller()));
 
         AddressForm form = new AddressForm(SELLER_ID, CEP_LETTER, COMPLEMENTO, NUMERO);
@@ -121,11 +142,69 @@ class AddressServiceTest {
         verify(repository, never()).save(any(Address.class));
     }
 
+    @Test
+    void testRegisterAddressByCepUserNotFound() throws Exception {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch lookupInterrupted = new CountDownLatch(1);
+        when(restTemplate.getForEntity(anyString(), eq(AddressTO.class))).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                lookupInterrupted.countDown();
+            }
+            return null;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        service.setCepLookupExecutor(executor);
+        when(sellerRepository.findById(SELLER_ID)).thenAnswer(invocation -> {
+            lookupStarted.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        try {
+            AddressForm form = new AddressForm(SELLER_ID, CEP, COMPLEMENTO, NUMERO);
+            Exception exception = assertThrows(RequestException.class, () -> service.registerAddressByCep(form));
+            assertEquals("User does not exist.", exception.getMessage());
+            assertTrue(lookupInterrupted.await(5, TimeUnit.SECONDS));
+            verify(repository, never()).save(any(Address.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRegisterAddressByCepLookupTimesOut() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForEntity(anyString(), eq(AddressTO.class))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return null;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        service.setCepLookupExecutor(executor);
+        service.setCepLookupTimeoutMs(50);
+        when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
+
+        try {
+            AddressForm form = new AddressForm(SELLER_ID, CEP, COMPLEMENTO, NUMERO);
+            Exception exception = assertThrows(ServiceUnavailableException.class,
+                    () -> service.registerAddressByCep(form));
+            assertEquals(AddressService.CEP_LOOKUP_UNAVAILABLE, exception.getMessage());
+            verify(repository, never()).save(any(Address.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testRegisterAddressByCepUserAlreadyHasAddress() {
         RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
-        when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER_WITH_ADDRESS));
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
+        when(repository.existsBySellerId(SELLER_ID)).thenReturn(true);
 
         AddressForm form = new AddressForm(SELLER_ID, CEP_LETTER, COMPLEMENTO, NUMERO);
         Exception exception = assertThrows(RequestException.class, () -> service.registerAddressByCep(form));
@@ -135,8 +214,8 @@ class AddressServiceTest {
 
     @Test
     void testRegisterAddressByCepException() {
-        RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        RestTemplate restTemplate = viaCep();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(new Seller()));
 
         AddressForm form = new AddressForm(SELLER_ID, CEP, COMPLEMENTO, NUMERO);
@@ -148,8 +227,8 @@ class AddressServiceTest {
 
     @Test
     void testRegisterAddressByCepLengthException() {
-        RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        RestTemplate restTemplate = viaCep();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(new Seller()));
 
         AddressForm form = new AddressForm(SELLER_ID, CEP, COMPLEMENTO, null);
@@ -176,8 +255,8 @@ class AddressServiceTest {
 
     @Test
     void testUpdateAddress() {
-        RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        RestTemplate restTemplate = viaCep();
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
         when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(ADDRESS));
         AddressUpdateForm updateAddressForm = new AddressUpdateForm(ADDRESS_ID, SELLER_ID, NEW_CEP, NOVO_COMPLEMENTO, NOVO_NUMERO);
@@ -187,10 +266,94 @@ class AddressServiceTest {
         verify(repository).save(any(Address.class));
     }
 
+    @Test
+    void testUpdateAddressSameCepSkipsCepLookup() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        Address address = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
+        when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(address));
+
+        AddressUpdateForm updateAddressForm = new AddressUpdateForm(ADDRESS_ID, SELLER_ID, address.getCep(), NOVO_COMPLEMENTO, NOVO_NUMERO);
+        service.updateAddress(updateAddressForm);
+        assertEquals(NOVO_NUMERO, address.getNumero());
+        assertEquals(NOVO_COMPLEMENTO, address.getComplemento());
+        assertEquals("rua tal", address.getLogradouro());
+        verify(restTemplate, never()).getForEntity(anyString(), eq(AddressTO.class));
+        verify(repository).save(address);
+    }
+
+    @Test
+    void testUpdateAddressNothingChanged() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        Address address = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
+        when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(address));
+
+        AddressUpdateForm updateAddressForm = new AddressUpdateForm(ADDRESS_ID, SELLER_ID, address.getCep(), address.getComplemento(), address.getNumero());
+        service.updateAddress(updateAddressForm);
+        verify(restTemplate, never()).getForEntity(anyString(), eq(AddressTO.class));
+        verify(repository, never()).save(any(Address.class));
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void testPatchAddress() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
+        Address address = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(address));
+
+        service.patchAddress(ADDRESS_ID, new AddressPatchForm(null, null, NOVO_NUMERO));
+        assertEquals(NOVO_NUMERO, address.getNumero());
+        assertEquals(ADDRESS_FORM.getComplemento(), address.getComplemento());
+        verify(restTemplate, never()).getForEntity(anyString(), eq(AddressTO.class));
+        verify(repository).save(address);
+        verify(outbox).record(eq(OutboxEventType.ADDRESS_UPDATED), any(), any(AddressResponse.class));
+    }
+
+    @Test
+    void testPatchAddressCepChangedMovesItsWeight() {
+        AddressService service = new AddressService(repository, sellerRepository, viaCep(), outbox, eventBus);
+        service.setAutocompleteIndex(autocompleteIndex);
+        Address address = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(address));
+
+        service.patchAddress(ADDRESS_ID, new AddressPatchForm(CEP_NUMBERS, null, null));
+        verify(autocompleteIndex).release(argThat(previous -> ADDRESS_FORM.getCep().equals(previous.getCep())));
+        verify(autocompleteIndex).record(argThat(current -> CEP_NUMBERS.equals(current.getCep())), eq(1));
+        //the ViaCEP answer itself is only made known, with no weight.
+        verify(autocompleteIndex).record(any(AddressTO.class), eq(0));
+
+        service.patchAddress(ADDRESS_ID, new AddressPatchForm(null, null, NOVO_NUMERO));
+        verifyNoMoreInteractions(autocompleteIndex);
+    }
+
+    @Test
+    void testPatchAddressAcceptsTheDashedCep() {
+        AddressService service = new AddressService(repository, sellerRepository, viaCep(), outbox, eventBus);
+        Address address = new Address(SELLER, ADDRESS_FORM, "rua tal", "jardim do meu endereço", "cidade exemplo", "RJ");
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(address));
+
+        service.patchAddress(ADDRESS_ID, new AddressPatchForm(CEP, null, null));
+        assertEquals(CEP_NUMBERS, address.getCep());
+        assertEquals("Rua Ministro Jesuíno Cardoso", address.getLogradouro());
+        verify(repository).save(address);
+    }
+
+    @Test
+    void testPatchAddressNotFound() {
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.empty());
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> service.patchAddress(ADDRESS_ID, new AddressPatchForm(null, null, NOVO_NUMERO)));
+        assertEquals("Address not found.", exception.getMessage());
+        verify(repository, never()).save(any(Address.class));
+    }
+
     @Test
     void testUpdateAddressUserNotFound() {
         RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.empty());
         AddressUpdateForm updateAddressForm = new AddressUpdateForm(ADDRESS_ID, SELLER_ID, NEW_CEP, NOVO_COMPLEMENTO, NOVO_NUMERO);
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> service.updateAddress(updateAddressForm));
@@ -203,7 +366,7 @@ class AddressServiceTest {
     @Test
     void testUpdateAddressSellerNotFound() {
         RestTemplate restTemplate = new RestTemplate();
-        AddressService service = new AddressService(repository, sellerRepository, restTemplate);
+        AddressService service = new AddressService(repository, sellerRepository, restTemplate, outbox, eventBus);
         when(sellerRepository.findById(SELLER_ID)).thenReturn(Optional.of(SELLER));
         when(repository.findById(ADDRESS_ID)).thenReturn(Optional.empty());
 
@@ -217,10 +380,12 @@ class AddressServiceTest {
 
     @Test
     void testDeleteAddressById() {
-        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(new Address()));
+        when(repository.findById(ADDRESS_ID)).thenReturn(Optional.of(ADDRESS));
         service.deleteAddressById(ADDRESS_ID);
-        verify(repository).findById(ADDRESS_ID);
-        verify(repository).deleteById(ADDRESS_ID);
+        verify(repository).delete(ADDRESS);
+        verify(autocompleteIndex).releaseAfterCommit(argThat(address -> ADDRESS.getCep().equals(address.getCep())));
+        verify(outbox).record(OutboxEventType.ADDRESS_DELETED, ADDRESS_ID, null);
+        verify(eventBus).publishAfterCommit(DomainEventType.ADDRESS_CHANGED, ADDRESS_ID, null);
     }
 
     @Test
@@ -229,7 +394,14 @@ class AddressServiceTest {
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> service.deleteAddressById(ADDRESS_ID));
         assertNotNull(exception);
         assertEquals("Address not found.", exception.getMessage());
-        verify(repository).findById(ADDRESS_ID);
-        verify(repository, never()).deleteById(ADDRESS_ID);
+        verify(repository, never()).delete(any(Address.class));
+    }
+
+    //answers like ViaCEP does for a known cep, so these tests do not depend on the network.
+    private static RestTemplate viaCep() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForEntity(anyString(), eq(AddressTO.class))).thenReturn(ResponseEntity.ok(
+                new AddressTO(CEP, "Rua Ministro Jesuíno Cardoso", "", "Vila Nova Conceição", "São Paulo", "SP")));
+        return restTemplate;
     }
 }
@@ -0,0 +1,93 @@
+package com.abneco.delivery.benchmark;
+
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.utils.ValidateEmail;
+import com.abneco.delivery.utils.ValidateSeller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rejected registration, from the validation failure to the exception reaching the handler. The legacy
+ * path rebuilds what the services did before: a stack-filling exception caught and rethrown as a new one. The depth
+ * parameter stands for the frames between the servlet and the service, which a stack trace has to walk.
+ * <p>
+ * Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main RejectionPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    @Param({"20", "80"})
+    private int depth;
+
+    private final SellerForm form = new SellerForm("Name", "name@email.com", "1234567", 1112345678L,
+            "09876543211234");
+
+    @Benchmark
+    public String legacy() {
+        try {
+            return descend(depth, true);
+        } catch (LegacyRequestException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String stackless() {
+        try {
+            return descend(depth, false);
+        } catch (RequestException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String descend(int remaining, boolean legacy) {
+        if (remaining > 0) {
+            return descend(remaining - 1, legacy);
+        }
+        return legacy ? legacyRegister() : register();
+    }
+
+    private String register() {
+        try {
+            ValidateSeller.validateSeller(form);
+            return "registered";
+        } catch (RequestException e) {
+            throw e;
+        }
+    }
+
+    private String legacyRegister() {
+        try {
+            ValidateEmail.validateEmail(form.getEmail());
+            if (form.getPassword().length() < 8) {
+                throw new LegacyRequestException("Password must be at least 8 char long.");
+            }
+            return "registered";
+        } catch (LegacyRequestException e) {
+            throw new LegacyRequestException(e.getMessage());
+        }
+    }
+
+    private static final class LegacyRequestException extends RuntimeException {
+        private LegacyRequestException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.abneco.delivery.cache;
+
+import com.abneco.delivery.config.NodeIdentity;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.repository.OutboxEventRepository;
+import com.abneco.delivery.utils.TimeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxInvalidationTransportTest {
+
+    @InjectMocks
+    private OutboxInvalidationTransport transport;
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private NodeIdentity nodeIdentity;
+
+    @Spy
+    private TimeService timeService = new TimeService();
+
+    public static final String NODE = "node-a";
+    public static final String SELLER_ID = "018b4a5c-7e21-7000-8000-000000000001";
+    public static final String OTHER_SELLER_ID = "018b4a5c-7e21-7000-8000-000000000002";
+    public static final CacheInvalidation SELLER_UPDATED =
+            new CacheInvalidation("SELLER", SELLER_ID, OutboxEventType.SELLER_UPDATED);
+
+    @Test
+    void testPollDeliversOtherNodesWrites() {
+        List<List<CacheInvalidation>> delivered = new ArrayList<>();
+        transport.subscribe(delivered::add);
+        when(nodeIdentity.getId()).thenReturn(NODE);
+        when(repository.findInvalidationsSince(any(LocalDateTime.class), eq(NODE)))
+                .thenReturn(List.of(row(1L, SELLER_ID)))
+                .thenReturn(List.of());
+
+        transport.poll();
+        transport.poll();
+
+        assertEquals(1, delivered.size());
+        assertEquals(List.of(SELLER_UPDATED), delivered.get(0));
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, times(2)).findInvalidationsSince(since.capture(), eq(NODE));
+        assertFalse(since.getAllValues().get(1).isBefore(since.getAllValues().get(0)));
+    }
+
+    @Test
+    void testPollSurvivesRepositoryFailure() {
+        List<List<CacheInvalidation>> delivered = new ArrayList<>();
+        transport.subscribe(delivered::add);
+        when(nodeIdentity.getId()).thenReturn(NODE);
+        when(repository.findInvalidationsSince(any(LocalDateTime.class), eq(NODE)))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of(row(1L, SELLER_ID)));
+
+        transport.poll();
+        transport.poll();
+
+        assertEquals(List.of(List.of(SELLER_UPDATED)), delivered);
+    }
+
+    @Test
+    void testPollDeliversEachRowOnce() {
+        List<List<CacheInvalidation>> delivered = new ArrayList<>();
+        transport.subscribe(delivered::add);
+        when(nodeIdentity.getId()).thenReturn(NODE);
+        //the overlap window reads the first row again, next to a late commit with a smaller id.
+        when(repository.findInvalidationsSince(any(LocalDateTime.class), eq(NODE)))
+                .thenReturn(List.of(row(5L, SELLER_ID)))
+                .thenReturn(List.of(row(4L, OTHER_SELLER_ID), row(5L, SELLER_ID)))
+                .thenReturn(List.of(row(4L, OTHER_SELLER_ID), row(5L, SELLER_ID)));
+
+        transport.poll();
+        transport.poll();
+        transport.poll();
+
+        assertEquals(List.of(List.of(SELLER_UPDATED),
+                List.of(new CacheInvalidation("SELLER", OTHER_SELLER_ID, OutboxEventType.SELLER_UPDATED))), delivered);
+    }
+
+    private static OutboxInvalidationRow row(long outboxId, String sellerId) {
+        return new OutboxInvalidationRow(outboxId, LocalDateTime.now(), "SELLER", sellerId,
+                OutboxEventType.SELLER_UPDATED);
+    }
+}
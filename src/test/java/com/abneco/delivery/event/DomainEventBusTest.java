@@ -0,0 +1,83 @@
+package com.abneco.delivery.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainEventBusTest {
+
+    @Test
+    void testPublishFromManyThreads() throws InterruptedException {
+        DomainEventMetrics metrics = new DomainEventMetrics();
+        DomainEventBus bus = new DomainEventBus(List.of(metrics), 1024, 64);
+        bus.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 4; producer++) {
+            Thread thread = new Thread(() -> {
+                for (int event = 0; event < 10000; event++) {
+                    while (!bus.publish(DomainEventType.FEE_QUOTED, "04555000", "SP")) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        bus.stop();
+        assertEquals(40000, metrics.count(DomainEventType.FEE_QUOTED));
+        assertEquals(0, bus.getBacklog());
+    }
+
+    @Test
+    void testHandlersSeeBatches() throws InterruptedException {
+        List<String> received = new ArrayList<>();
+        List<Integer> batchEnds = new ArrayList<>();
+        DomainEventBus bus = new DomainEventBus(List.of((event, endOfBatch) -> {
+            received.add(event.getAggregateId());
+            if (endOfBatch) {
+                batchEnds.add(received.size());
+            }
+        }), 16, 4);
+        for (int event = 0; event < 10; event++) {
+            assertTrue(bus.publish(DomainEventType.SELLER_UPDATED, String.valueOf(event), null));
+        }
+        bus.start();
+        bus.stop();
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), received);
+        assertEquals(List.of(4, 8, 10), batchEnds);
+    }
+
+    @Test
+    void testFullBufferDropsEvents() {
+        DomainEventBus bus = new DomainEventBus(List.of(), 4, 4);
+        for (int event = 0; event < 4; event++) {
+            assertTrue(bus.publish(DomainEventType.ADDRESS_CHANGED, "id", null));
+        }
+        assertFalse(bus.publish(DomainEventType.ADDRESS_CHANGED, "id", null));
+        assertEquals(1, bus.getDropped());
+        assertEquals(4, bus.getBacklog());
+    }
+
+    @Test
+    void testFailingHandlerDoesNotStopTheBus() throws InterruptedException {
+        DomainEventMetrics metrics = new DomainEventMetrics();
+        DomainEventBus bus = new DomainEventBus(List.of((event, endOfBatch) -> {
+            throw new IllegalStateException("boom");
+        }, metrics), 8, 8);
+        bus.start();
+        bus.publish(DomainEventType.SELLER_DELETED, "id", null);
+        bus.stop();
+        assertEquals(1, metrics.count(DomainEventType.SELLER_DELETED));
+    }
+
+    @Test
+    void testCapacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new DomainEventBus(List.of(), 1000, 10));
+    }
+}
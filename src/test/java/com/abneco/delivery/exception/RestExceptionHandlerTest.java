@@ -0,0 +1,95 @@
+package com.abneco.delivery.exception;
+
+import com.abneco.delivery.utils.TimeService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestExceptionHandlerTest {
+
+    private final RestExceptionHandler handler = new RestExceptionHandler();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void renders_request_exception_with_the_usual_fields() throws Exception {
+        ResponseEntity<byte[]> response = handler.handleRequestException(new RequestException("Cep is mandatory."));
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("Request Exception", body.get("title").asText());
+        assertEquals(400, body.get("status").asInt());
+        assertEquals("Cep is mandatory.", body.get("detail").asText());
+        assertEquals(RequestException.class.getName(), body.get("message").asText());
+        LocalDateTime timestamp = LocalDateTime.parse(body.get("timestamp").asText(),
+                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+        assertTrue(Math.abs(java.time.Duration.between(timestamp, LocalDateTime.now()).getSeconds()) <= 2);
+    }
+
+    @Test
+    void escapes_details_and_renders_null_detail() throws Exception {
+        String detail = "Could not find \"seller\" \\ id\n\u0001 ção";
+
+        JsonNode escaped = objectMapper.readTree(handler.handleResourceNotFoundException(
+                new ResourceNotFoundException(detail)).getBody());
+        JsonNode empty = objectMapper.readTree(handler.handleUnauthorizedException(
+                new UnauthorizedException(null)).getBody());
+
+        assertEquals(detail, escaped.get("detail").asText());
+        assertEquals(404, escaped.get("status").asInt());
+        assertTrue(empty.get("detail").isNull());
+        assertEquals(401, empty.get("status").asInt());
+    }
+
+    @Test
+    void service_unavailable_asks_to_retry() {
+        ResponseEntity<byte[]> response = handler.handleServiceUnavailableException(
+                new ServiceUnavailableException("Busy."));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void lists_every_rejected_field() throws Exception {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "form");
+        bindingResult.addError(new FieldError("form", "cep", "must not be null"));
+        bindingResult.addError(new FieldError("form", "numero", "size must be between 1 and 10"));
+        MethodParameter parameter = new MethodParameter(Object.class.getMethod("equals", Object.class), 0);
+
+        ResponseEntity<byte[]> response = handler.handleMethodArgumentNotValidException(
+                new MethodArgumentNotValidException(parameter, bindingResult));
+
+        JsonNode body = objectMapper.readTree(new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("cep: must not be null; numero: size must be between 1 and 10", body.get("detail").asText());
+        assertEquals(MethodArgumentNotValidException.class.getName(), body.get("message").asText());
+    }
+
+    @Test
+    void timestamp_comes_from_the_clock() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2021-03-04T05:06:07.890Z"), ZoneOffset.ofHours(-3));
+        RestExceptionHandler fixed = new RestExceptionHandler(new TimeService(clock));
+
+        JsonNode body = objectMapper.readTree(fixed.handleRequestException(new RequestException("Late.")).getBody());
+
+        assertEquals("04/03/2021 02:06:07", body.get("timestamp").asText());
+    }
+}
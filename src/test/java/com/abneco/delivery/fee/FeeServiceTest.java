@@ -2,6 +2,8 @@ package com.abneco.delivery.fee;
 
 import com.abneco.delivery.address.dto.AddressTO;
 import com.abneco.delivery.address.service.AddressService;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.fee.dto.EnumBrazilianRegions;
 import com.abneco.delivery.fee.dto.FeeResponse;
@@ -19,6 +21,7 @@ import java.util.NoSuchElementException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class FeeServiceTest {
@@ -29,6 +32,9 @@ class FeeServiceTest {
     @Mock
     private AddressService addressService;
 
+    @Mock
+    private DomainEventBus eventBus;
+
     public static final String CEP = "0123456";
     public static final String LOGRADOURO = "Rua exemplo";
     public static final String COMPLEMENTO = "Casa x";
@@ -55,6 +61,7 @@ class FeeServiceTest {
         FeeResponse sp = service.generateResponse(CEP);
         assertNotNull(sp);
         assertEquals(SUDESTE_FEE, sp.getFrete());
+        verify(eventBus).publish(DomainEventType.FEE_QUOTED, CEP, SP);
 
         doReturn(getAddressTo(AL)).when(addressService).getAddressTemplate(CEP);
         FeeResponse al = service.generateResponse(CEP);
@@ -0,0 +1,115 @@
+package com.abneco.delivery.outbox.service;
+
+import com.abneco.delivery.config.NodeIdentity;
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.outbox.dto.OutboxEventPage;
+import com.abneco.delivery.outbox.entity.OutboxEvent;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.repository.OutboxEventRepository;
+import com.abneco.delivery.user.json.SellerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    private OutboxService service;
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    public static final String SELLER_ID = "018b4a5c-7e21-7000-8000-000000000001";
+    public static final String OTHER_SELLER_ID = "018b4a5c-7e21-7000-8000-000000000002";
+
+    @BeforeEach
+    void setup() {
+        service = new OutboxService(repository, new ObjectMapper(), new NodeIdentity("node-a"));
+    }
+
+    @Test
+    void testRecord() {
+        SellerResponse payload = SellerResponse.builder().id(SELLER_ID).name("Name").build();
+        service.record(OutboxEventType.SELLER_REGISTERED, SELLER_ID, payload);
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(event.capture());
+        assertEquals("SELLER", event.getValue().getAggregateType());
+        assertEquals(SELLER_ID, event.getValue().getAggregateId());
+        assertEquals(OutboxEventType.SELLER_REGISTERED, event.getValue().getEventType());
+        assertTrue(event.getValue().getPayload().contains("\"name\":\"Name\""));
+        assertNotNull(event.getValue().getCreatedAt());
+        assertEquals("node-a", event.getValue().getOriginNode());
+    }
+
+    @Test
+    void testRecordWithoutPayload() {
+        service.record(OutboxEventType.ADDRESS_DELETED, SELLER_ID, null);
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(event.capture());
+        assertEquals("ADDRESS", event.getValue().getAggregateType());
+        assertNull(event.getValue().getPayload());
+    }
+
+    @Test
+    void testRecordAllInsertsOneBatch() {
+        List<SellerResponse> sellers = List.of(SellerResponse.builder().id(SELLER_ID).name("Name").build(),
+                SellerResponse.builder().id(OTHER_SELLER_ID).name("Other").build());
+        service.recordAll(OutboxEventType.SELLER_REGISTERED, sellers, SellerResponse::getId, seller -> seller);
+
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAll(events.capture());
+        assertEquals(2, events.getValue().size());
+        assertEquals(SELLER_ID, events.getValue().get(0).getAggregateId());
+        assertEquals(OTHER_SELLER_ID, events.getValue().get(1).getAggregateId());
+        assertTrue(events.getValue().get(1).getPayload().contains("\"name\":\"Other\""));
+        assertEquals("node-a", events.getValue().get(1).getOriginNode());
+        verify(repository, never()).save(any(OutboxEvent.class));
+    }
+
+    @Test
+    void testFindEvents() {
+        when(repository.findAfter(eq(10L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(event(11L), event(12L), event(13L)));
+        OutboxEventPage page = service.findEvents(10L, null, 2);
+        assertEquals(2, page.getEvents().size());
+        assertEquals(12L, page.getNextCursor());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void testFindEventsByAggregateTypeEmpty() {
+        when(repository.findAfter(eq(10L), eq("SELLER"), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        OutboxEventPage page = service.findEvents(10L, "seller", 100);
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(10L, page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testFindEventsInvalidParameters() {
+        Exception limit = assertThrows(RequestException.class, () -> service.findEvents(0, null, 0));
+        assertEquals("Limit must be between 1 and 1000.", limit.getMessage());
+        Exception type = assertThrows(RequestException.class, () -> service.findEvents(0, "fee", 10));
+        assertEquals("Aggregate type must be SELLER or ADDRESS.", type.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    private static OutboxEvent event(long id) {
+        return new OutboxEvent(id, "SELLER", SELLER_ID, OutboxEventType.SELLER_UPDATED, "{}", LocalDateTime.now(), "node-a");
+    }
+}
@@ -0,0 +1,72 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    public static final String PASSWORD = "12345678";
+
+    @Test
+    void testHashMatchesPassword() {
+        PasswordHasher hasher = new PasswordHasher();
+        String hash = hasher.hash(PASSWORD);
+        assertTrue(hasher.matches(PASSWORD, hash));
+        assertFalse(hasher.matches("87654321", hash));
+        hasher.shutdown();
+    }
+
+    @Test
+    void testHashAllKeepsOrder() {
+        PasswordHasher hasher = new PasswordHasher(3, 8, PasswordHasher.MIN_STRENGTH, 0, new SimpleMeterRegistry());
+        List<String> passwords = List.of("password-1", "password-2", "password-3", "password-4", "password-5");
+        List<String> hashes = hasher.hashAll(passwords);
+        assertEquals(passwords.size(), hashes.size());
+        for (int index = 0; index < passwords.size(); index++) {
+            assertTrue(hasher.matches(passwords.get(index), hashes.get(index)));
+        }
+        hasher.shutdown();
+    }
+
+    @Test
+    void testSaturatedHasherFailsFast() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(1, 1, 14, 0, registry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.hash(PASSWORD));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.hash(PASSWORD));
+        while (hasher.getQueueDepth() == 0 && !running.isDone() && !queued.isDone()) {
+            Thread.sleep(1);
+        }
+        assertThrows(ServiceUnavailableException.class, () -> hasher.hash(PASSWORD));
+        assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+        hasher.shutdown();
+    }
+
+    @Test
+    void testSlowHashTimesOut() {
+        PasswordHasher hasher = new PasswordHasher(1, 1, 14, 0, 1, new SimpleMeterRegistry());
+        assertThrows(ServiceUnavailableException.class, () -> hasher.hash(PASSWORD));
+        hasher.shutdown();
+    }
+
+    @Test
+    void testHashAllDoesNotFillThePoolAndItsQueue() {
+        PasswordHasher hasher = new PasswordHasher(2, 1, PasswordHasher.MIN_STRENGTH, 0, new SimpleMeterRegistry());
+        List<String> passwords = List.of("password-1", "password-2", "password-3", "password-4", "password-5");
+        assertEquals(passwords.size(), hasher.hashAll(passwords).size());
+        hasher.shutdown();
+    }
+
+    @Test
+    void testStrengthIsCalibratedToTheTarget() {
+        PasswordHasher hasher = new PasswordHasher(1, 1, 0, 1, new SimpleMeterRegistry());
+        assertEquals(PasswordHasher.MIN_STRENGTH, hasher.getStrength());
+        hasher.shutdown();
+    }
+}
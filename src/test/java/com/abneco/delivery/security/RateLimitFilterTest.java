@@ -0,0 +1,53 @@
+package com.abneco.delivery.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final String HEADER = "X-Api-Key";
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        RateLimiter limiter = new RateLimiter("1:1", List.of(), 100, new SimpleMeterRegistry(), () -> 0L);
+        filter = new RateLimitFilter(limiter, HEADER, List.of("partner-key", " "));
+    }
+
+    @Test
+    void unknown_api_keys_share_the_bucket_of_their_address() throws Exception {
+        assertEquals(HttpStatus.OK.value(), request("made-up-1").getStatus());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), request("made-up-2").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), request(null).getStatus());
+    }
+
+    @Test
+    void configured_api_keys_have_their_own_bucket() throws Exception {
+        assertEquals(HttpStatus.OK.value(), request(null).getStatus());
+
+        assertEquals(HttpStatus.OK.value(), request("partner-key").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), request("partner-key").getStatus());
+    }
+
+    private MockHttpServletResponse request(String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/seller");
+        request.setRemoteAddr("10.0.0.1");
+        if (apiKey != null) {
+            request.addHeader(HEADER, apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.abneco.delivery.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setup() {
+        limiter = new RateLimiter("10:5", List.of("/v1/consulta-endereco=1:2", "/v1=100:100"), 3,
+                new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void allows_a_burst_then_asks_to_wait_one_interval() {
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "client"));
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "client"));
+
+        assertEquals(SECOND, limiter.acquire("/v1/consulta-endereco", "client"));
+
+        now.addAndGet(SECOND);
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "client"));
+        assertTrue(limiter.acquire("/v1/consulta-endereco", "client") > 0);
+    }
+
+    @Test
+    void rejected_requests_do_not_use_up_tokens() {
+        limiter.acquire("/v1/consulta-endereco", "client");
+        limiter.acquire("/v1/consulta-endereco", "client");
+        for (int attempt = 0; attempt < 10; attempt++) {
+            assertTrue(limiter.acquire("/v1/consulta-endereco", "client") > 0);
+        }
+
+        now.addAndGet(SECOND);
+
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "client"));
+    }
+
+    @Test
+    void clients_and_routes_have_their_own_buckets() {
+        limiter.acquire("/v1/consulta-endereco", "client");
+        limiter.acquire("/v1/consulta-endereco", "client");
+
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "other"));
+        assertEquals(0, limiter.acquire("/v1/other", "client"));
+        assertEquals(0, limiter.acquire("/seller", "client"));
+    }
+
+    @Test
+    void longest_prefix_wins_and_unmatched_paths_use_the_default() {
+        for (int request = 0; request < 5; request++) {
+            assertEquals(0, limiter.acquire("/seller", "client"));
+        }
+        assertTrue(limiter.acquire("/seller", "client") > 0);
+
+        for (int request = 0; request < 50; request++) {
+            assertEquals(0, limiter.acquire("/v1/fee", "client"));
+        }
+    }
+
+    @Test
+    void idle_buckets_are_evicted() {
+        limiter.acquire("/v1/consulta-endereco", "client");
+        limiter.acquire("/seller", "client");
+        assertEquals(2, limiter.bucketCount());
+
+        now.addAndGet(10 * SECOND);
+        limiter.evictIdle();
+
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    @Test
+    void clients_past_the_bucket_limit_are_limited_by_their_address() {
+        limiter.acquire("/v1/consulta-endereco", "first");
+        limiter.acquire("/v1/consulta-endereco", "second");
+        limiter.acquire("/v1/consulta-endereco", "third");
+
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "key:fourth", "10.0.0.1"));
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "key:fifth", "10.0.0.1"));
+        assertTrue(limiter.acquire("/v1/consulta-endereco", "key:sixth", "10.0.0.1") > 0);
+
+        assertEquals(0, limiter.acquire("/v1/consulta-endereco", "key:seventh", "10.0.0.2"));
+        assertEquals(5, limiter.bucketCount());
+    }
+}
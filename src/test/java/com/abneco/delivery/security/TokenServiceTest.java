@@ -0,0 +1,64 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.utils.TimeService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    public static final String SECRET = "a-secret-long-enough-for-hmac-sha256";
+    public static final String SELLER_ID = "018b4a5c-7e21-7000-8000-000000000001";
+    public static final String EMAIL = "seller@email.com";
+
+    @Test
+    void testIssuedTokenIsVerified() {
+        TokenService service = new TokenService(SECRET, 60);
+        TokenService.Claims claims = service.verify(service.issue(SELLER_ID, EMAIL));
+        assertNotNull(claims);
+        assertEquals(SELLER_ID, claims.getSellerId());
+        assertEquals(EMAIL, claims.getEmail());
+        assertTrue(claims.getIssuedAt() <= System.currentTimeMillis());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        TokenService service = new TokenService(SECRET, 60);
+        String token = service.issue(SELLER_ID, EMAIL);
+        String otherPayload = service.issue(SELLER_ID, "other@email.com").split("\\.")[0];
+        assertNull(service.verify(otherPayload + token.substring(token.indexOf('.'))));
+        assertNull(service.verify(token + "x"));
+        assertNull(service.verify("not a token"));
+        assertNull(service.verify(null));
+    }
+
+    @Test
+    void testTokenFromAnotherSecretIsRejected() {
+        String token = new TokenService(SECRET, 60).issue(SELLER_ID, EMAIL);
+        assertNull(new TokenService("another-secret-long-enough-for-hmac", 60).verify(token));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        TokenService service = new TokenService(SECRET, 0);
+        assertNull(service.verify(service.issue(SELLER_ID, EMAIL)));
+    }
+
+    @Test
+    void testTokensFollowTheTimeService() {
+        Instant issuedAt = Instant.parse("2021-03-04T05:06:07Z");
+        String token = new TokenService(SECRET, 60, new TimeService(Clock.fixed(issuedAt, ZoneOffset.UTC)))
+                .issue(SELLER_ID, EMAIL);
+
+        TokenService beforeExpiry = new TokenService(SECRET, 60,
+                new TimeService(Clock.fixed(issuedAt.plusSeconds(3599), ZoneOffset.UTC)));
+        assertEquals(issuedAt.toEpochMilli(), beforeExpiry.verify(token).getIssuedAt());
+        TokenService atExpiry = new TokenService(SECRET, 60,
+                new TimeService(Clock.fixed(issuedAt.plusSeconds(3600), ZoneOffset.UTC)));
+        assertNull(atExpiry.verify(token));
+    }
+}
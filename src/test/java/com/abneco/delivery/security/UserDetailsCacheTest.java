@@ -0,0 +1,94 @@
+package com.abneco.delivery.security;
+
+import com.abneco.delivery.cache.CacheInvalidation;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+
+    public static final String SELLER_ID = "018b4a5c-7e21-7000-8000-000000000001";
+    public static final String EMAIL = "seller@email.com";
+    public static final String NEW_EMAIL = "new@email.com";
+    public static final String PASSWORD_HASH = "$2a$10$hash";
+
+    @Test
+    void testCachedDetailsAreReturned() {
+        UserDetailsCache cache = new UserDetailsCache();
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), cache.generation());
+        assertEquals(PASSWORD_HASH, cache.get(EMAIL).getPassword());
+        assertNull(cache.get(NEW_EMAIL));
+    }
+
+    @Test
+    void testEvictingTheSellerDropsItsEmail() {
+        UserDetailsCache cache = new UserDetailsCache();
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), cache.generation());
+        cache.evictSellerAfterCommit(SELLER_ID);
+        assertNull(cache.get(EMAIL));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testChangedEmailReplacesTheOldOne() {
+        UserDetailsCache cache = new UserDetailsCache();
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), cache.generation());
+        cache.put(SELLER_ID, new UserDetailsImplements(NEW_EMAIL, PASSWORD_HASH), cache.generation());
+        assertNull(cache.get(EMAIL));
+        assertNotNull(cache.get(NEW_EMAIL));
+    }
+
+    @Test
+    void testLoadThatRacedWithAnEvictionIsNotKept() {
+        UserDetailsCache cache = new UserDetailsCache();
+        long generation = cache.generation();
+        cache.evictSeller(SELLER_ID);
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), generation);
+        assertNull(cache.get(EMAIL));
+    }
+
+    @Test
+    void testOtherNodesChangesEvict() {
+        UserDetailsCache cache = new UserDetailsCache();
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), cache.generation());
+        cache.invalidate(List.of(new CacheInvalidation("SELLER", SELLER_ID, OutboxEventType.SELLER_UPDATED)));
+        assertNull(cache.get(EMAIL));
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        UserDetailsCache cache = new UserDetailsCache(100, 300);
+        for (int index = 0; index < 1000; index++) {
+            cache.put("seller-" + index, new UserDetailsImplements(index + EMAIL, PASSWORD_HASH), cache.generation());
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void testEvictionRevokesEarlierTokens() throws Exception {
+        UserDetailsCache cache = new UserDetailsCache();
+        long issuedBefore = System.currentTimeMillis();
+        assertFalse(cache.isRevoked(SELLER_ID, issuedBefore));
+
+        cache.invalidate(List.of(new CacheInvalidation("SELLER", SELLER_ID, OutboxEventType.SELLER_UPDATED)));
+        Thread.sleep(2);
+        long issuedAfter = System.currentTimeMillis();
+
+        assertTrue(cache.isRevoked(SELLER_ID, issuedBefore));
+        assertFalse(cache.isRevoked(SELLER_ID, issuedAfter));
+        assertFalse(cache.isRevoked("another-seller", issuedBefore));
+    }
+
+    @Test
+    void testLoadRacingWithAnotherEvictionRevokesNothing() {
+        UserDetailsCache cache = new UserDetailsCache();
+        long generation = cache.generation();
+        cache.evictSeller("another-seller");
+        cache.put(SELLER_ID, new UserDetailsImplements(EMAIL, PASSWORD_HASH), generation);
+        assertNull(cache.get(EMAIL));
+        assertFalse(cache.isRevoked(SELLER_ID, 0));
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -37,8 +39,8 @@ class SellerControllerTest {
     public static final String PASSWORD = "12345678";
     public static final Long PHONE_NUMBER = 11987654321L;
     public static final Boolean EMAIL_VERIFIED = false;
-    public static final String CREATED_AT = "";
-    public static final String UPDATED_AT = null;
+    public static final LocalDateTime CREATED_AT = LocalDateTime.of(2023, 3, 1, 14, 47);
+    public static final LocalDateTime UPDATED_AT = null;
 
     @Test
     void test_register_seller() throws Exception {
@@ -1,14 +1,19 @@
 package com.abneco.delivery.user.mock;
 
+import com.abneco.delivery.security.SellerCredentials;
 import com.abneco.delivery.user.entity.Seller;
 import com.abneco.delivery.user.repository.SellerRepository;
+import com.abneco.delivery.user.uniqueness.SellerKeys;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MockSellerRepositoryData implements SellerRepository {
     @Override
@@ -16,11 +21,42 @@ public class MockSellerRepositoryData implements SellerRepository {
         return Optional.empty();
     }
 
+    @Override
+    public Optional<SellerCredentials> findCredentialsByEmail(String email) {
+        return Optional.empty();
+    }
+
     @Override
     public Optional<Seller> findByCnpj(String cnpj) {
         return Optional.empty();
     }
 
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return List.of();
+    }
+
+    @Override
+    public List<String> findExistingCnpjs(Collection<String> cnpjs) {
+        return List.of();
+    }
+
+    @Override
+    public Stream<SellerKeys> streamKeys() {
+        return Stream.empty();
+    }
+
+    @Override
+    public List<SellerKeys> findKeysByIds(Collection<String> ids) {
+        return List.of();
+    }
+
+    @Override
+    public List<Seller> findChangedSince(LocalDateTime updatedAt, String id, LocalDateTime until, Pageable pageable) {
+        return List.of();
+    }
+
+
     @Override
     public List<Seller> findAll() {
         return null;
@@ -0,0 +1,176 @@
+package com.abneco.delivery.user.service;
+
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.exception.ServiceUnavailableException;
+import com.abneco.delivery.security.SecretCipher;
+import com.abneco.delivery.user.entity.RegistrationStatus;
+import com.abneco.delivery.user.entity.RegistrationTicket;
+import com.abneco.delivery.user.json.BulkSellerRejection;
+import com.abneco.delivery.user.json.BulkSellerResponse;
+import com.abneco.delivery.user.json.RegistrationTicketResponse;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.user.repository.RegistrationTicketRepository;
+import com.abneco.delivery.utils.TimeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SellerRegistrationServiceTest {
+
+    private static final String EMAIL = "name@email.com";
+    private static final String PASSWORD = "12345678";
+    private static final String CNPJ = "09876543211234";
+    private static final String KEY = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+    private SellerRegistrationService service;
+    private SecretCipher secretCipher;
+
+    @Mock
+    private RegistrationTicketRepository repository;
+
+    @Mock
+    private SellerService sellerService;
+
+    @BeforeEach
+    void setup() {
+        secretCipher = new SecretCipher(KEY);
+        service = new SellerRegistrationService(repository, sellerService, secretCipher,
+                TransactionOperations.withoutTransaction(), new TimeService(), 2);
+    }
+
+    @Test
+    void enqueue_stores_a_pending_ticket_with_a_sealed_password() {
+        when(repository.save(any(RegistrationTicket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RegistrationTicketResponse response = service.enqueue(new SellerForm("Name", EMAIL, PASSWORD, 1112345678L, CNPJ));
+
+        ArgumentCaptor<RegistrationTicket> saved = ArgumentCaptor.forClass(RegistrationTicket.class);
+        verify(repository).save(saved.capture());
+        assertEquals(RegistrationStatus.PENDING, response.getStatus());
+        assertNotEquals(PASSWORD, saved.getValue().getSealedPassword());
+        assertEquals(PASSWORD, secretCipher.open(saved.getValue().getSealedPassword()));
+        verifyNoInteractions(sellerService);
+    }
+
+    @Test
+    void enqueue_rejects_invalid_form_without_storing_it() {
+        SellerForm form = new SellerForm("Name", EMAIL, "1234567", 1112345678L, CNPJ);
+
+        RequestException exception = assertThrows(RequestException.class, () -> service.enqueue(form));
+
+        assertEquals("Password must be at least 8 char long.", exception.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void enqueue_is_unavailable_without_a_queue_key() {
+        service = new SellerRegistrationService(repository, sellerService, new SecretCipher(""),
+                TransactionOperations.withoutTransaction(), new TimeService(), 2);
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> service.enqueue(new SellerForm("Name", EMAIL, PASSWORD, 1112345678L, CNPJ)));
+
+        assertEquals(SellerRegistrationService.QUEUE_DISABLED, exception.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findTicket_throws_not_found_for_unknown_ticket() {
+        when(repository.findById("missing")).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> service.findTicket("missing"));
+
+        assertEquals(SellerRegistrationService.TICKET_NOT_FOUND, exception.getMessage());
+    }
+
+    @Test
+    void processPending_completes_accepted_and_rejects_refused_tickets() {
+        RegistrationTicket first = ticket("first@email.com");
+        RegistrationTicket second = ticket("second@email.com");
+        when(repository.lockPending(10)).thenReturn(List.of(first, second));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        BulkSellerResponse response = new BulkSellerResponse(1,
+                List.of(new BulkSellerRejection(1, "second@email.com", "Email already in use.")));
+        when(sellerService.registerSellers(anyList(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<BulkSellerResponse>>getArgument(1).accept(response);
+            return response;
+        });
+
+        assertEquals(2, service.processPending(10));
+
+        //one save claims the tickets, the other finishes them along with the inserts.
+        verify(repository, times(2)).saveAll(anyList());
+
+        assertEquals(RegistrationStatus.COMPLETED, first.getStatus());
+        assertEquals(RegistrationStatus.REJECTED, second.getStatus());
+        assertEquals("Email already in use.", second.getReason());
+        assertNull(first.getSealedPassword());
+        assertNull(second.getSealedPassword());
+    }
+
+    @Test
+    void processPending_requeues_batch_until_attempts_run_out() {
+        RegistrationTicket ticket = ticket(EMAIL);
+        when(repository.lockPending(10)).thenReturn(List.of(ticket));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sellerService.registerSellers(anyList(), any())).thenThrow(new RequestException("Could not register sellers."));
+
+        service.processPending(10);
+        assertEquals(RegistrationStatus.PENDING, ticket.getStatus());
+        assertNotNull(ticket.getSealedPassword());
+
+        service.processPending(10);
+        assertEquals(RegistrationStatus.FAILED, ticket.getStatus());
+        assertNull(ticket.getSealedPassword());
+    }
+
+    @Test
+    void processPending_requeues_tickets_whose_transaction_rolled_back_with_their_password() {
+        RegistrationTicket ticket = ticket(EMAIL);
+        String sealed = ticket.getSealedPassword();
+        when(repository.lockPending(10)).thenReturn(List.of(ticket));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sellerService.registerSellers(anyList(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<BulkSellerResponse>>getArgument(1).accept(new BulkSellerResponse(1, List.of()));
+            throw new RequestException("Could not register sellers.");
+        });
+
+        service.processPending(10);
+
+        assertEquals(RegistrationStatus.PENDING, ticket.getStatus());
+        assertEquals(sealed, ticket.getSealedPassword());
+    }
+
+    @Test
+    void processPending_does_nothing_when_queue_is_empty() {
+        when(repository.lockPending(10)).thenReturn(List.of());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(0, service.processPending(10));
+
+        verifyNoInteractions(sellerService);
+    }
+
+    private RegistrationTicket ticket(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return new RegistrationTicket(null, RegistrationStatus.PENDING, "Name", email, 1112345678L, CNPJ,
+                secretCipher.seal(PASSWORD), null, 0, now, now);
+    }
+}
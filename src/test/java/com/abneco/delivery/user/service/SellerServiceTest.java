@@ -1,19 +1,34 @@
 package com.abneco.delivery.user.service;
 
+import com.abneco.delivery.address.entity.Address;
+import com.abneco.delivery.address.repository.AddressRepository;
+import com.abneco.delivery.event.DomainEventBus;
+import com.abneco.delivery.event.DomainEventType;
 import com.abneco.delivery.exception.RequestException;
 import com.abneco.delivery.exception.ResourceNotFoundException;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.outbox.service.OutboxService;
 import com.abneco.delivery.user.entity.Seller;
+import com.abneco.delivery.user.entity.SellerTombstone;
+import com.abneco.delivery.user.json.BulkSellerResponse;
+import com.abneco.delivery.user.json.SellerChangesResponse;
 import com.abneco.delivery.user.json.SellerForm;
 import com.abneco.delivery.user.json.SellerResponse;
 import com.abneco.delivery.user.json.SellerUpdateForm;
 import com.abneco.delivery.user.repository.SellerRepository;
+import com.abneco.delivery.user.repository.SellerTombstoneRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +38,28 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class SellerServiceTest {
 
-    @InjectMocks
     private SellerService service;
 
     @Mock
     private SellerRepository repository;
 
+    @Mock
+    private SellerTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private DomainEventBus eventBus;
+
+    @BeforeEach
+    void setup() {
+        service = new SellerService(repository, tombstoneRepository, addressRepository, outbox, eventBus);
+    }
+
     public static final String ID = "iyu230hskdf-dfoi7-462c-a47f-7afaade01517";
     public static final String NAME = "Name";
     public static final String NEW_NAME = "name";
@@ -47,35 +78,34 @@ class SellerServiceTest {
     @Test
     void testRegisterSeller() {
         SellerForm form = new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ);
-        when(repository.findByEmail(form.getEmail())).thenReturn(Optional.empty());
-        when(repository.findByCnpj(form.getCnpj())).thenReturn(Optional.empty());
         service.registerSeller(form);
-        verify(repository).findByEmail(form.getEmail());
-        verify(repository).findByCnpj(form.getCnpj());
+        verify(repository, never()).findByEmail(form.getEmail());
+        verify(repository, never()).findByCnpj(form.getCnpj());
         verify(repository).save(any(Seller.class));
+        verify(outbox).record(eq(OutboxEventType.SELLER_REGISTERED), any(), any(SellerResponse.class));
+        verify(eventBus).publish(eq(DomainEventType.SELLER_REGISTERED), any(), eq(EMAIL));
     }
 
     @Test
     void testRegisterSellerEmailAlreadyInUse() {
         SellerForm form = new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ);
-        doReturn(optionalSeller()).when(repository).findByEmail(form.getEmail());
+        when(repository.save(any(Seller.class))).thenThrow(duplicateKey(EMAIL, Seller.EMAIL_UNIQUE_KEY));
         Exception exception = assertThrows(RequestException.class, () -> service.registerSeller(form));
         assertNotNull(exception);
         assertEquals("Email already in use.", exception.getMessage());
-        verify(repository).findByEmail(form.getEmail());
-        verify(repository, never()).save(Mockito.any(Seller.class));
+        verify(repository, never()).findByEmail(form.getEmail());
+        verify(repository).save(Mockito.any(Seller.class));
     }
 
     @Test
     void testRegisterSellerCnpjAlreadyInUse() {
         SellerForm form = new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ);
-        when(repository.findByEmail(form.getEmail())).thenReturn(Optional.empty());
-        when(repository.findByCnpj(form.getCnpj())).thenReturn(Optional.of(new Seller()));
+        when(repository.save(any(Seller.class))).thenThrow(duplicateKey(CNPJ, Seller.CNPJ_UNIQUE_KEY));
         Exception exception = assertThrows(RequestException.class, () -> service.registerSeller(form));
         assertNotNull(exception);
         assertEquals("Cnpj already in use.", exception.getMessage());
-        verify(repository).findByEmail(form.getEmail());
-        verify(repository, never()).save(Mockito.any(Seller.class));
+        verify(repository, never()).findByCnpj(form.getCnpj());
+        verify(repository).save(Mockito.any(Seller.class));
     }
 
     @Test
@@ -90,8 +120,6 @@ class SellerServiceTest {
     @Test
     void testRegisterSellerSaveValidations() {
         SellerForm shortCnpjForm = new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, SHORT_CNPJ);
-        when(repository.findByEmail(EMAIL)).thenReturn(Optional.empty());
-        when(repository.findByCnpj(shortCnpjForm.getCnpj())).thenReturn(Optional.empty());
         Exception shortCnpj = assertThrows(RequestException.class, () -> service.registerSeller(shortCnpjForm));
         assertNotNull(shortCnpj);
         assertEquals("Cnpj must have 14 numbers, and numbers only.", shortCnpj.getMessage());
@@ -133,22 +161,86 @@ class SellerServiceTest {
     @Test
     void testRegisterSellerException() {
         SellerForm form = new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ);
-        when(repository.findByEmail(EMAIL)).thenThrow(RuntimeException.class);
+        when(repository.save(any(Seller.class))).thenThrow(RuntimeException.class);
         Exception exception = assertThrows(RequestException.class, () -> service.registerSeller(form));
         assertEquals("Could not register seller.", exception.getMessage());
     }
 
+    @Test
+    void testRegisterSellers() {
+        List<SellerForm> forms = List.of(
+                new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ),
+                new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, NEW_CNPJ),
+                new SellerForm(NAME, EMAIL_WITHOUT_AT, PASSWORD, PHONE_NUMBER, NEW_CNPJ),
+                new SellerForm(NAME, NEW_EMAIL, PASSWORD, PHONE_NUMBER, NEW_CNPJ));
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(repository.findExistingCnpjs(anyCollection())).thenReturn(List.of());
+        BulkSellerResponse response = service.registerSellers(forms);
+        assertEquals(2, response.getRegistered());
+        assertEquals(2, response.getRejected().size());
+        assertEquals(1, response.getRejected().get(0).getIndex());
+        assertEquals("Email repeated in the same batch.", response.getRejected().get(0).getReason());
+        assertEquals(2, response.getRejected().get(1).getIndex());
+        assertEquals("Email has incorrect format.", response.getRejected().get(1).getReason());
+        verify(repository).saveAll(anyList());
+        verify(outbox).recordAll(eq(OutboxEventType.SELLER_REGISTERED), argThat(sellers -> sellers.size() == 2), any(),
+                any());
+    }
+
+    @Test
+    void testRegisterSellersAlreadyInUse() {
+        List<SellerForm> forms = List.of(
+                new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ),
+                new SellerForm(NAME, NEW_EMAIL, PASSWORD, PHONE_NUMBER, NEW_CNPJ));
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of(EMAIL.toUpperCase()));
+        when(repository.findExistingCnpjs(anyCollection())).thenReturn(List.of(NEW_CNPJ));
+        BulkSellerResponse response = service.registerSellers(forms);
+        assertEquals(0, response.getRegistered());
+        assertEquals("Email already in use.", response.getRejected().get(0).getReason());
+        assertEquals("Cnpj already in use.", response.getRejected().get(1).getReason());
+    }
+
+    @Test
+    void testRegisterSellersRechecksTheBatchAfterADuplicateKey() {
+        List<SellerForm> forms = List.of(
+                new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ),
+                new SellerForm(NAME, NEW_EMAIL, PASSWORD, PHONE_NUMBER, NEW_CNPJ));
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of(), List.of(EMAIL));
+        when(repository.findExistingCnpjs(anyCollection())).thenReturn(List.of());
+        when(repository.saveAll(anyList())).thenThrow(duplicateKey(EMAIL, Seller.EMAIL_UNIQUE_KEY))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        BulkSellerResponse response = service.registerSellers(forms);
+        assertEquals(1, response.getRegistered());
+        assertEquals(1, response.getRejected().size());
+        assertEquals(0, response.getRejected().get(0).getIndex());
+        assertEquals("Email already in use.", response.getRejected().get(0).getReason());
+        verify(repository, times(2)).findExistingEmails(argThat(emails -> emails.size() == 2));
+        verify(outbox).recordAll(eq(OutboxEventType.SELLER_REGISTERED), argThat(sellers -> sellers.size() == 1), any(),
+                any());
+    }
+
+    @Test
+    void testRegisterSellersEmptyBatch() {
+        Exception exception = assertThrows(RequestException.class, () -> service.registerSellers(List.of()));
+        assertEquals("At least one seller must be informed.", exception.getMessage());
+        verify(repository, never()).saveAll(anyList());
+    }
+
     @Test
     void testUpdateSeller() {
         SellerUpdateForm form = new SellerUpdateForm(ID, NEW_NAME, NEW_EMAIL, PHONE_NUMBER, NEW_CNPJ);
-        doReturn(optionalSeller()).when(repository).findById(ID);
+        when(repository.findById(ID)).thenReturn(optionalSeller());
         SellerResponse response = service.updateSeller(form);
         assertNotNull(response);
+        assertEquals(ID, response.getId());
         assertEquals("Name", response.getName());
         assertEquals(NEW_EMAIL, response.getEmail());
         assertEquals(NEW_CNPJ, response.getCnpj());
-        verify(repository).findById(ID);
-        verify(repository).save(any(Seller.class));
+        assertEquals("01/03/2023 14:47:00", response.getCreatedAt());
+        assertNotNull(response.getUpdatedAt());
+        verify(repository).flush();
+        verify(repository, never()).save(any(Seller.class));
+        verify(outbox).record(OutboxEventType.SELLER_UPDATED, ID, response);
     }
 
     @Test
@@ -160,26 +252,100 @@ class SellerServiceTest {
         assertEquals("Seller not found.", exception.getMessage());
     }
 
+    @Test
+    void testUpdateSellerEmailAlreadyInUse() {
+        SellerUpdateForm form = new SellerUpdateForm(ID, NEW_NAME, NEW_EMAIL, PHONE_NUMBER, NEW_CNPJ);
+        when(repository.findById(ID)).thenReturn(optionalSeller());
+        doThrow(duplicateKey(NEW_EMAIL, Seller.EMAIL_UNIQUE_KEY)).when(repository).flush();
+        Exception exception = assertThrows(RequestException.class, () -> service.updateSeller(form));
+        assertNotNull(exception);
+        assertEquals("Email already in use.", exception.getMessage());
+    }
+
     @Test
     void testUpdateSellerRequestException() {
         SellerUpdateForm nullNameForm = new SellerUpdateForm(ID, SHORT_NAME, EMAIL, PHONE_NUMBER, CNPJ);
-        when(repository.findById(nullNameForm.getId())).thenReturn(Optional.of(new Seller()));
         Exception nullName = assertThrows(RequestException.class, () -> service.updateSeller(nullNameForm));
         assertNotNull(nullName);
         assertEquals("Name must be neither null nor shorter than 3.", nullName.getMessage());
-        verify(repository, never()).save(Mockito.any(Seller.class));
+        verify(repository, never()).findById(anyString());
     }
 
     @Test
     void testUpdateSellerException() {
         SellerUpdateForm form = new SellerUpdateForm(ID, NAME, EMAIL, PHONE_NUMBER, CNPJ);
-        when(repository.findById(form.getId())).thenThrow(RuntimeException.class);
+        when(repository.findById(ID)).thenThrow(RuntimeException.class);
         Exception exception = assertThrows(RequestException.class, () -> service.updateSeller(form));
         assertNotNull(exception);
         assertEquals("Could not update seller.", exception.getMessage());
         verify(repository, never()).save(Mockito.any(Seller.class));
     }
 
+    @Test
+    void testFindSellerChanges() {
+        Seller first = getSeller();
+        first.setId("018b4a5c-7e21-7000-8000-000000000001");
+        first.setUpdatedAt(LocalDateTime.of(2023, 3, 1, 14, 47));
+        Seller second = getSeller();
+        second.setId("018b4a5c-7e21-7000-8000-000000000002");
+        second.setUpdatedAt(LocalDateTime.of(2023, 3, 1, 14, 48));
+        when(repository.findChangedSince(any(LocalDateTime.class), anyString(), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(first, second));
+
+        SellerChangesResponse response = service.findSellerChanges(null, 1);
+        assertEquals(1, response.getSellers().size());
+        assertTrue(response.isHasMore());
+        assertEquals("01/03/2023 14:47:00", response.getSellers().get(0).getUpdatedAt());
+
+        when(repository.findChangedSince(eq(LocalDateTime.of(2023, 3, 1, 14, 47)), eq(first.getId()),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        SellerChangesResponse next = service.findSellerChanges(response.getNextCursor(), 1);
+        assertTrue(next.getSellers().isEmpty());
+        assertFalse(next.isHasMore());
+        assertEquals(response.getNextCursor(), next.getNextCursor());
+    }
+
+    @Test
+    void testFindSellerChangesIncludesDeletions() {
+        Seller first = getSeller();
+        first.setId("018b4a5c-7e21-7000-8000-000000000001");
+        first.setUpdatedAt(LocalDateTime.of(2023, 3, 1, 14, 47));
+        Seller third = getSeller();
+        third.setId("018b4a5c-7e21-7000-8000-000000000003");
+        third.setUpdatedAt(LocalDateTime.of(2023, 3, 1, 14, 49));
+        SellerTombstone second = new SellerTombstone("018b4a5c-7e21-7000-8000-000000000002",
+                LocalDateTime.of(2023, 3, 1, 14, 48));
+        when(repository.findChangedSince(any(LocalDateTime.class), anyString(), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(first, third));
+        when(tombstoneRepository.findDeletedSince(any(LocalDateTime.class), anyString(), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(second));
+
+        SellerChangesResponse response = service.findSellerChanges(null, 2);
+        assertEquals(1, response.getSellers().size());
+        assertEquals(first.getId(), response.getSellers().get(0).getId());
+        assertEquals(List.of(second.getId()), response.getDeleted());
+        assertTrue(response.isHasMore());
+
+        when(tombstoneRepository.findDeletedSince(eq(second.getDeletedAt()), eq(second.getId()),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findChangedSince(eq(second.getDeletedAt()), eq(second.getId()),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(third));
+        SellerChangesResponse next = service.findSellerChanges(response.getNextCursor(), 2);
+        assertEquals(third.getId(), next.getSellers().get(0).getId());
+        assertTrue(next.getDeleted().isEmpty());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void testFindSellerChangesInvalidCursor() {
+        Exception exception = assertThrows(RequestException.class, () -> service.findSellerChanges("not-a-cursor", 10));
+        assertEquals("Invalid cursor.", exception.getMessage());
+        Exception limit = assertThrows(RequestException.class, () -> service.findSellerChanges(null, 0));
+        assertEquals("Limit must be between 1 and 1000.", limit.getMessage());
+        verify(repository, never()).findChangedSince(any(LocalDateTime.class), anyString(), any(LocalDateTime.class),
+                any(Pageable.class));
+    }
+
     @Test
     void testFindSellerById() {
         doReturn(optionalSeller()).when(repository).findById(ID);
@@ -208,11 +374,15 @@ class SellerServiceTest {
 
     @Test
     void testDeleteSellerById() {
-        doReturn(optionalSeller()).when(repository).findById(ID);
-        doNothing().when(repository).deleteById(ID);
+        Seller seller = optionalSeller().get();
+        Address address = new Address();
+        when(repository.findById(ID)).thenReturn(Optional.of(seller));
+        when(addressRepository.findBySellerId(ID)).thenReturn(Optional.of(address));
         service.deleteSellerById(ID);
-        verify(repository).findById(ID);
-        verify(repository).deleteById(ID);
+        verify(addressRepository).delete(address);
+        verify(repository).delete(seller);
+        verify(tombstoneRepository).save(argThat(tombstone -> ID.equals(tombstone.getId())));
+        verify(outbox).record(OutboxEventType.SELLER_DELETED, ID, null);
     }
 
     @Test
@@ -221,18 +391,18 @@ class SellerServiceTest {
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> service.deleteSellerById(ID));
         assertNotNull(exception);
         assertEquals("Seller not found.", exception.getMessage());
-        verify(repository).findById(ID);
-        verify(repository, never()).deleteById(ID);
+        verify(repository, never()).delete(any(Seller.class));
+        verifyNoInteractions(addressRepository, outbox);
     }
 
     @Test
     void testDeleteSellerByIdException() {
-        when(repository.findById(ID)).thenThrow(RuntimeException.class);
+        when(repository.findById(ID)).thenReturn(optionalSeller());
+        when(addressRepository.findBySellerId(ID)).thenThrow(RuntimeException.class);
         Exception exception = assertThrows(RequestException.class, () -> service.deleteSellerById(ID));
         assertNotNull(exception);
         assertEquals("Could not delete seller with id: " + ID, exception.getMessage());
-        verify(repository).findById(ID);
-        verify(repository, never()).deleteById(ID);
+        verify(repository, never()).delete(any(Seller.class));
     }
 
     @Test
@@ -243,6 +413,13 @@ class SellerServiceTest {
         assertEquals(1, response.size());
     }
 
+    public DataIntegrityViolationException duplicateKey(String value, String key) {
+        SQLIntegrityConstraintViolationException cause = new SQLIntegrityConstraintViolationException(
+                "Duplicate entry '" + value + "' for key 'seller." + key + "'", "23000", 1062);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, "seller." + key));
+    }
+
     public Optional<Seller> optionalSeller() {
         Seller seller = new Seller();
         seller.setId(ID);
@@ -251,7 +428,7 @@ class SellerServiceTest {
         seller.setCnpj(CNPJ);
         seller.setEmailVerified(false);
         seller.setPassword(PASSWORD);
-        seller.setCreatedAt("01/03/2023 14:47");
+        seller.setCreatedAt(LocalDateTime.of(2023, 3, 1, 14, 47));
         return Optional.of(seller);
     }
 
@@ -263,7 +440,7 @@ class SellerServiceTest {
         seller.setCnpj(CNPJ);
         seller.setEmailVerified(false);
         seller.setPassword(PASSWORD);
-        seller.setCreatedAt("01/03/2023 14:47");
+        seller.setCreatedAt(LocalDateTime.of(2023, 3, 1, 14, 47));
         return seller;
     }
 }
@@ -0,0 +1,117 @@
+package com.abneco.delivery.user.uniqueness;
+
+import com.abneco.delivery.cache.CacheInvalidation;
+import com.abneco.delivery.outbox.entity.OutboxEventType;
+import com.abneco.delivery.user.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SellerKeyFilterTest {
+
+    private SellerKeyFilter filter;
+
+    @Mock
+    private SellerRepository repository;
+
+    @BeforeEach
+    void setup() {
+        filter = new SellerKeyFilter(repository, TransactionOperations.withoutTransaction(), 1000, 0.01);
+    }
+
+    @Test
+    void bloom_filter_has_no_false_negatives_and_few_false_positives() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int index = 0; index < 10_000; index++) {
+            bloomFilter.put("seller" + index + "@email.com");
+        }
+        for (int index = 0; index < 10_000; index++) {
+            assertTrue(bloomFilter.mightContain("seller" + index + "@email.com"));
+        }
+        int falsePositives = 0;
+        for (int index = 10_000; index < 110_000; index++) {
+            if (bloomFilter.mightContain("seller" + index + "@email.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void every_key_is_a_possible_hit_before_the_first_build() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContainEmail("name@email.com"));
+        assertTrue(filter.mightContainCnpj("09876543211234"));
+    }
+
+    @Test
+    void rebuild_loads_existing_keys_and_ignores_email_case() {
+        when(repository.count()).thenReturn(1L);
+        when(repository.streamKeys()).thenReturn(Stream.of(new SellerKeys("Name@Email.com", "09876543211234")));
+
+        filter.rebuild();
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContainEmail("name@email.com"));
+        assertTrue(filter.mightContainCnpj("09876543211234"));
+        assertFalse(filter.mightContainEmail("other@email.com"));
+        assertFalse(filter.mightContainCnpj("12345678901234"));
+    }
+
+    @Test
+    void add_and_remote_registrations_reach_the_filter() {
+        when(repository.count()).thenReturn(0L);
+        when(repository.streamKeys()).thenReturn(Stream.empty());
+        when(repository.findKeysByIds(Set.of("remote-id")))
+                .thenReturn(List.of(new SellerKeys("remote@email.com", "11111111111111")));
+        filter.rebuild();
+
+        filter.add("local@email.com", "22222222222222");
+        filter.invalidate(List.of(
+                new CacheInvalidation("SELLER", "remote-id", OutboxEventType.SELLER_REGISTERED),
+                new CacheInvalidation("SELLER", "deleted-id", OutboxEventType.SELLER_DELETED)));
+
+        assertTrue(filter.mightContainEmail("local@email.com"));
+        assertTrue(filter.mightContainCnpj("22222222222222"));
+        assertTrue(filter.mightContainEmail("remote@email.com"));
+        assertTrue(filter.mightContainCnpj("11111111111111"));
+    }
+
+    @Test
+    void background_rebuild_scans_on_its_own_thread() throws Exception {
+        CompletableFuture<String> scanThread = new CompletableFuture<>();
+        when(repository.count()).thenReturn(0L);
+        when(repository.streamKeys()).thenAnswer(invocation -> {
+            scanThread.complete(Thread.currentThread().getName());
+            return Stream.empty();
+        });
+
+        filter.rebuildInBackground();
+
+        assertTrue(scanThread.get(5, TimeUnit.SECONDS).startsWith("seller-key-filter-"));
+        filter.shutdown();
+    }
+
+    @Test
+    void failed_rebuild_keeps_every_key_a_possible_hit() {
+        when(repository.count()).thenThrow(new IllegalStateException("database is down"));
+
+        filter.rebuild();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContainEmail("name@email.com"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.abneco.delivery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void testGenerateVersion7() {
+        UUID uuid = TimeOrderedUuid.generate();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testGenerateIsTimeOrdered() {
+        long before = System.currentTimeMillis();
+        UUID previous = TimeOrderedUuid.generate();
+        assertTrue(previous.getMostSignificantBits() >>> 16 >= before);
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = TimeOrderedUuid.generate();
+            assertTrue(previous.compareTo(next) < 0);
+            assertTrue(previous.toString().compareTo(next.toString()) < 0);
+            previous = next;
+        }
+    }
+}
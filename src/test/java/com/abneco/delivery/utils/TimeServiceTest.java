@@ -0,0 +1,79 @@
+package com.abneco.delivery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeServiceTest {
+
+    private static final ZoneOffset ZONE = ZoneOffset.ofHours(-3);
+
+    @Test
+    void testEveryVariantComesFromTheClock() {
+        TimeService timeService = new TimeService(Clock.fixed(Instant.parse("2021-03-04T05:06:07.890123456Z"), ZONE));
+
+        assertEquals(LocalDateTime.of(2021, 3, 4, 2, 6, 7, 890123000), timeService.now());
+        assertEquals(Instant.parse("2021-03-04T05:06:07.890123456Z"), timeService.instant());
+        assertEquals(1614834367890L, timeService.epochMillis());
+        assertEquals(1614834367L, timeService.epochSecond());
+        assertEquals("04/03/2021 02:06:07", timeService.formatNow());
+        assertArrayEquals("04/03/2021 02:06:07".getBytes(), timeService.formatNowUtf8());
+        assertEquals("2021-03-04T02:06:07-03:00", timeService.isoNow());
+    }
+
+    @Test
+    void testFormatsOncePerSecond() {
+        MutableClock clock = new MutableClock(Instant.parse("2021-03-04T05:06:07.100Z"));
+        TimeService timeService = new TimeService(clock);
+
+        String first = timeService.formatNow();
+        clock.instant = Instant.parse("2021-03-04T05:06:07.900Z");
+        assertSame(first, timeService.formatNow());
+
+        clock.instant = Instant.parse("2021-03-04T05:06:08.000Z");
+        assertEquals("04/03/2021 02:06:08", timeService.formatNow());
+        assertEquals("2021-03-04T02:06:08-03:00", timeService.isoNow());
+    }
+
+    @Test
+    void testClockGoingBackIsFormattedWithoutReplacingTheLatestSecond() {
+        MutableClock clock = new MutableClock(Instant.parse("2021-03-04T05:06:08Z"));
+        TimeService timeService = new TimeService(clock);
+        String latest = timeService.formatNow();
+
+        clock.instant = Instant.parse("2021-03-04T05:06:07Z");
+        assertEquals("04/03/2021 02:06:07", timeService.formatNow());
+
+        clock.instant = Instant.parse("2021-03-04T05:06:08Z");
+        assertSame(latest, timeService.formatNow());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
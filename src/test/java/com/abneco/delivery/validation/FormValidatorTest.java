@@ -0,0 +1,104 @@
+package com.abneco.delivery.validation;
+
+import com.abneco.delivery.address.dto.AddressForm;
+import com.abneco.delivery.exception.RequestException;
+import com.abneco.delivery.user.json.SellerForm;
+import com.abneco.delivery.user.json.SellerUpdateForm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormValidatorTest {
+
+    private static final String NAME = "Name";
+    private static final String EMAIL = "name@email.com";
+    private static final String PASSWORD = "12345678";
+    private static final Long PHONE_NUMBER = 1112345678L;
+    private static final String CNPJ = "09876543211234";
+
+    @Test
+    void valid_seller_form_has_no_violations() {
+        Violations violations = FormValidator.validate(new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ));
+
+        assertTrue(violations.isValid());
+        assertNull(violations.first());
+        assertDoesNotThrow(violations::throwIfInvalid);
+    }
+
+    @Test
+    void every_violation_is_collected_in_check_order() {
+        Violations violations = FormValidator.validate(new SellerForm("Na", "email", "1234567", PHONE_NUMBER,
+                "1234567891012a"));
+
+        assertEquals(List.of(Violation.INVALID_EMAIL, Violation.INVALID_CNPJ, Violation.INVALID_NAME,
+                Violation.SHORT_PASSWORD), violations.all());
+        assertEquals("Email has incorrect format. Cnpj must have 14 numbers, and numbers only. "
+                + "Name must be neither null nor shorter than 3. Password must be at least 8 char long.",
+                violations.describe());
+        RequestException exception = assertThrows(RequestException.class, violations::throwIfInvalid);
+        assertEquals("Email has incorrect format.", exception.getMessage());
+    }
+
+    @Test
+    void null_fields_are_violations_instead_of_errors() {
+        Violations violations = FormValidator.validate(new SellerForm(null, null, null, null, null));
+
+        assertEquals(List.of(Violation.INVALID_EMAIL, Violation.INVALID_CNPJ, Violation.INVALID_NAME,
+                Violation.SHORT_PASSWORD), violations.all());
+    }
+
+    @Test
+    void update_form_does_not_check_password() {
+        Violations violations = FormValidator.validate(new SellerUpdateForm("id", NAME, EMAIL, PHONE_NUMBER, "123"));
+
+        assertEquals(List.of(Violation.INVALID_CNPJ), violations.all());
+    }
+
+    @Test
+    void address_form_checks_cep_and_number() {
+        assertTrue(FormValidator.validate(new AddressForm("id", "04858-040", null, 1)).isValid());
+        assertEquals(List.of(Violation.INVALID_CEP, Violation.MISSING_NUMBER),
+                FormValidator.validate(new AddressForm("id", "0485804a", null, null)).all());
+    }
+
+    @Test
+    void violations_can_be_reused() {
+        Violations violations = new Violations();
+        FormValidator.validate(new SellerForm(NAME, "email", PASSWORD, PHONE_NUMBER, CNPJ), violations);
+        assertEquals(Violation.INVALID_EMAIL, violations.first());
+
+        FormValidator.validate(new SellerForm(NAME, EMAIL, PASSWORD, PHONE_NUMBER, CNPJ), violations.clear());
+        assertTrue(violations.isValid());
+    }
+
+    @Test
+    void cnpj_must_be_fourteen_digits() {
+        assertTrue(Matchers.isCnpj(CNPJ));
+        assertFalse(Matchers.isCnpj("1234567891012a"));
+        assertFalse(Matchers.isCnpj("0987654321123"));
+        assertFalse(Matchers.isCnpj("098765432112345"));
+        assertFalse(Matchers.isCnpj(null));
+    }
+
+    @Test
+    void email_matcher_accepts_exactly_what_the_old_pattern_did() {
+        Pattern pattern = Pattern.compile(".+[@].+[.].+");
+        for (String email : List.of("", "a@b.c", "a@b.", "@b.c", "a@.c", "a.b@c", "a@b.c.d", "a@@b..c", "a\n@b.c",
+                "a@b\r.c", "a@b.c ", "\u0085a@b.c", "name@email.com")) {
+            assertEquals(pattern.matcher(email).matches(), Matchers.isEmail(email), email);
+        }
+        char[] alphabet = {'a', '@', '.', '\n', '\r', '\u0085', '\u2028', '\u2029', ' ', '-'};
+        Random random = new Random(42);
+        for (int sample = 0; sample < 100_000; sample++) {
+            StringBuilder email = new StringBuilder();
+            for (int length = random.nextInt(9); length > 0; length--) {
+                email.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertEquals(pattern.matcher(email).matches(), Matchers.isEmail(email.toString()), email.toString());
+        }
+    }
+}